@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+// One row per (film, actor) pair, enforced by the unique key that DatabaseInitializer creates
 @Table(name = "casting_principal")
 @Data
 @Builder
@@ -14,13 +14,21 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "Film")
+@Table(name = "Film", indexes = {
+        @Index(name = "idx_film_imdb", columnList = "imdb"),
+        @Index(name = "idx_film_annee_debut", columnList = "annee_debut"),
+        @Index(name = "idx_film_rating_value", columnList = "rating_value")
+})
+// Fetch plan of the reads that map films to FilmDTO: the country is joined in the same select
+@NamedEntityGraph(name = Film.WITH_PAYS, attributeNodes = @NamedAttributeNode("pays"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Film implements Entities.generic.IEntity<Long> {
 
+    public static final String WITH_PAYS = "Film.withPays";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -46,6 +54,13 @@ public class Film implements Entities.generic.IEntity<Long> {
     @Size(max = 4, message = "Rating should not exceed 4 characters")
     private String rating;
 
+    // Numeric copies of annee and rating used by range filters, kept in sync by syncNumericColumns()
+    @Column(name = "annee_debut")
+    private Integer anneeDebut;
+
+    @Column(name = "rating_value")
+    private Double ratingValue;
+
     @Column(name = "url")
     @Size(max = 500, message = "URL should not exceed 500 characters")
     private String url;
@@ -67,8 +82,12 @@ public class Film implements Entities.generic.IEntity<Long> {
     @Size(max = 255, message = "Genres string should not exceed 255 characters")
     private String genres; // For search features
 
-    @ManyToOne
+    // Lazy: only loaded by the reads that use the Film.withPays graph, never by the importer.
+    // Associations are excluded from equals/hashCode/toString, which would otherwise initialize them
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_pays")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Pays pays;
 
     //@ManyToMany
@@ -79,7 +98,9 @@ public class Film implements Entities.generic.IEntity<Long> {
     //)
     //private List<Acteur> acteurs = new ArrayList<>();
 
-    @ManyToMany(cascade = CascadeType.ALL)
+    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @JoinTable(
             name = "film_genre",
             joinColumns = @JoinColumn(name = "film_id"),
@@ -96,6 +117,51 @@ public class Film implements Entities.generic.IEntity<Long> {
     //private Set<Realisateur> realisateurs = new HashSet<>();
 
 
+    @PrePersist
+    @PreUpdate
+    void syncNumericColumns() {
+        anneeDebut = parseStartYear(annee);
+        ratingValue = parseRating(rating);
+    }
+
+    /**
+     * @param annee the year as stored, e.g. {@code 1994} or {@code 1950–1952}
+     * @return the first year, or null if the value does not start with a four-digit year
+     */
+    public static Integer parseStartYear(String annee) {
+        if (annee == null) {
+            return null;
+        }
+        String trimmed = annee.trim();
+        if (trimmed.length() < 4) {
+            return null;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (!Character.isDigit(trimmed.charAt(i))) {
+                return null;
+            }
+        }
+        if (trimmed.length() > 4 && Character.isDigit(trimmed.charAt(4))) {
+            return null;
+        }
+        return Integer.parseInt(trimmed.substring(0, 4));
+    }
+
+    /**
+     * @param rating the rating as stored, with a comma or a dot, e.g. {@code 7,8}
+     * @return the rating, or null if the value is not a number
+     */
+    public static Double parseRating(String rating) {
+        if (rating == null || rating.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(rating.trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     public LocalDateTime getCreatedDate() {
         return null; // Implement as needed
     }
@@ -30,7 +30,11 @@ public class Genre {
     @Size(max = 100, message = "Genre name should not exceed 100 characters")
     private String name;
 
-    @ManyToMany(mappedBy = "genresl", fetch = FetchType.EAGER)
+    // Lazy: listing genres must not load every linked film; excluded from equals/hashCode/toString,
+    // which would otherwise initialize it (or fail once the genre is detached)
+    @ManyToMany(mappedBy = "genresl", fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Film> films = new HashSet<>();
 
 
@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "acteur")
+@Table(name = "acteur", indexes = @Index(name = "idx_acteur_imdb", columnList = "id_imdb"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+// film_id and acteur_id hold IMDb IDs; the unique key and the by-actor index are created by DatabaseInitializer
 @Table(name = "role")
 public class Role {
 
@@ -1,11 +1,12 @@
 package com.example.demo;
 
-import utilities.database.DatabaseInitializer;
+import utilities.database.DataImportJob;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
@@ -13,10 +14,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EntityScan(basePackages = {"Entities.Business"}) // Add this annotation
 @EnableJpaRepositories(basePackages = "persistence.repository") // Explicitly include the repository package
 @ComponentScan(basePackages = {"Entities.Business", "utilities", "persistence.repository", "service"}) // Ensure all relevant packages are scanned// Ensure Utilities package is scanned
+@EnableCaching
 public class ProductApplication implements CommandLineRunner {
 
     @Autowired
-    private DatabaseInitializer databaseInitializer;
+    private DataImportJob dataImportJob;
 
     public static void main(String[] args) {
         SpringApplication.run(ProductApplication.class, args);
@@ -24,6 +26,7 @@ public class ProductApplication implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        databaseInitializer.createDatabase();
+        // The import runs in the background; readiness reports OUT_OF_SERVICE until it has finished
+        dataImportJob.start();
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,5 +25,9 @@ public interface IActeurRepository extends JpaRepository<Acteur, Long> {
 
     Optional<Acteur> findByPersonne(Personne personne);
 
+    // Actors of the given IMDb IDs with their Personne, in one select
+    @Query("SELECT a FROM Acteur a LEFT JOIN FETCH a.personne WHERE a.idImdb IN :imdbs")
+    List<Acteur> findWithPersonneByImdbIn(@Param("imdbs") Collection<String> imdbs);
+
     List<Acteur> findAllWithFilters(String identite, String dateNaissance, PageRequest of);
 }
\ No newline at end of file
@@ -2,14 +2,26 @@ package persistence.repository;
 
 
 import entities.business.CastingPrincipal.CastingPrincipal;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ICastingPrincipalRepository extends JpaRepository<CastingPrincipal, Long> {
     Optional<CastingPrincipal> findByFilmIdAndActeurId(String filmId, String acteurId);
     boolean existsByFilmIdAndActeurId(String filmId, String acteurId);
+
+    // IMDb IDs of the principal cast of a film, read from the uk_casting_film_acteur index
+    @Query("SELECT c.acteurId FROM CastingPrincipal c WHERE c.filmId = :filmId")
+    List<String> findActeurIdsByFilmId(@Param("filmId") String filmId);
+
+    // Film and actor of the principal cast entries after the given id, in id order, one batch at a time
+    @Query("SELECT c.idCasting, c.filmId, c.acteurId FROM CastingPrincipal c WHERE c.idCasting > :afterId ORDER BY c.idCasting")
+    List<Object[]> findLinksAfter(@Param("afterId") Long afterId, Pageable pageable);
     void deleteByFilmIdAndActeurId(String filmId, String acteurId);
 }
@@ -2,10 +2,14 @@ package persistence.repository;
 
 
 import entities.business.Film.Film;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,59 +17,72 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Repository
-public interface IFilmRepository extends JpaRepository<Film, Long> {
+public interface IFilmRepository extends JpaRepository<Film, Long>, JpaSpecificationExecutor<Film>, IFilmSummaryQueries {
 
-    // Find films by IMDb ID
+    // Find films by IMDb ID, without the country or the genres (used by the importer)
     Optional<Film> findByImdb(String imdb);
 
+    // Detail reads: the film and its country in one select
+    @EntityGraph(Film.WITH_PAYS)
+    Optional<Film> findWithPaysByImdb(String imdb);
+
+    @EntityGraph(Film.WITH_PAYS)
+    Optional<Film> findWithPaysById(Long id);
+
+    // Films of the given ids with their country, in one select whatever the number of ids
+    @EntityGraph(Film.WITH_PAYS)
+    List<Film> findWithPaysByIdIn(Collection<Long> ids);
+
+    // Check whether a film exists without loading it
+    boolean existsByImdb(String imdb);
+
+    // IMDb IDs of every stored film, used by the importer to detect duplicates in memory
+    @Query("SELECT f.imdb FROM Film f")
+    List<String> findAllImdb();
+
+    // Id, name, filming locations and summary of the films after an id, used to build the text index
+    @Query("SELECT f.id, f.nom, f.lieuTour, f.resume FROM Film f WHERE f.id > :afterId ORDER BY f.id")
+    List<Object[]> findSearchableTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Id and genres of the films after an id, used to build the genre index
+    @Query("SELECT f.id, f.genres FROM Film f WHERE f.id > :afterId ORDER BY f.id")
+    List<Object[]> findGenresAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+
+    // The list queries below load the country with the films (Film.withPays graph), so mapping them
+    // to FilmDTO does not issue one select per film
 
     // Find films by name (partial match, case insensitive)
+    @EntityGraph(Film.WITH_PAYS)
     List<Film> findByNomContainingIgnoreCase(String nom);
 
     // Find films by release year
+    @EntityGraph(Film.WITH_PAYS)
     List<Film> findByAnnee(@NotBlank(message = "Année cannot be blank") @Size(max = 10, message = "Année should not exceed 10 characters") String annee);
 
-    // Find films with a rating above a certain threshold
-    List<Film> findByRatingGreaterThanEqual(@NotBlank(message = "Rating cannot be blank") @Size(max = 4, message = "Rating should not exceed 4 characters") String rating);
+    // Find films with a rating above a certain threshold (numeric comparison on the indexed rating_value column)
+    @EntityGraph(Film.WITH_PAYS)
+    List<Film> findByRatingValueGreaterThanEqual(Double rating);
 
     // Find films by country name (assuming 'paysList' contains 'Pays' entities)
+    @EntityGraph(Film.WITH_PAYS)
     @Query("SELECT f FROM Film f WHERE f.pays.name = :paysName")
     List<Film> findByPaysName(@Param("paysName") String paysName);
 
     // Find films by genre name (assuming 'genres' contains 'Genre' entities)
+    @EntityGraph(Film.WITH_PAYS)
     @Query("SELECT f FROM Film f JOIN f.genresl g WHERE g.name = :genreName")
     List<Film> findByGenreName(@Param("genreName") String genreName);
 
     // Find films by language
+    @EntityGraph(Film.WITH_PAYS)
     List<Film> findByLangueContainingIgnoreCase(String langue);
 
     // Find films by location of shooting
+    @EntityGraph(Film.WITH_PAYS)
     List<Film> findByLieuTourContainingIgnoreCase(String lieuTour);
 
-    // Custom query to find films with multiple filters and sorting
-    @Query("SELECT f FROM Film f "
-            + "WHERE "
-            + "(:nom IS NULL OR LOWER(f.nom) LIKE LOWER(CONCAT('%', :nom, '%'))) AND "
-            + "(:annee IS NULL OR f.annee = :annee) AND "
-            + "(:rating IS NULL OR f.rating >= :rating) AND "
-            + "(:paysName IS NULL OR f.pays.name = :paysName) AND "
-            + "(:genre IS NULL OR EXISTS (SELECT 1 FROM f.genresl g WHERE g.name = :genreName)) "
-            + "ORDER BY "
-            + "CASE WHEN :sortBy = 'nom' THEN f.nom END ASC, "
-            + "CASE WHEN :sortBy = 'annee' THEN f.annee END ASC, "
-            + "CASE WHEN :sortBy = 'rating' THEN f.rating END DESC")
-    List<Film> findFilmsWithFiltersAndSorting(
-            @Param("nom") String nom,
-            @Param("annee") String annee,
-            @Param("rating") String rating,
-            @Param("paysName") String paysName,
-            @Param("genreName") String genreName,
-            @Param("sortBy") String sortBy
-    );
-
-    // Custom query method to find films by actor
-    //@Query("SELECT f FROM Film f JOIN f.acteurs a WHERE a.id = :actorId")
-    //List<Film> findFilmsByActor(@Param("actorId") Long actorId);
+    // The films of an actor are read from role, see IRoleRepository#findFilmographyRows
 
 
 }
\ No newline at end of file
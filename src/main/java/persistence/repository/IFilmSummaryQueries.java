@@ -0,0 +1,22 @@
+package persistence.repository;
+
+import entities.business.Film.Film;
+import web.model.dto.FilmSummary;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Film queries selecting only the columns of {@link FilmSummary}, mixed into {@link IFilmRepository}.
+ */
+public interface IFilmSummaryQueries {
+
+    /**
+     * @param specification the filter, may be null
+     * @param sort          the order of the rows
+     * @param maxRows       the maximum number of rows
+     * @return the summaries of the matching films
+     */
+    List<FilmSummary> findSummaries(Specification<Film> specification, Sort sort, int maxRows);
+}
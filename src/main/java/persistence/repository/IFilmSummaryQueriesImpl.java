@@ -0,0 +1,46 @@
+package persistence.repository;
+
+import entities.business.Film.Film;
+import entities.business.pays.Pays;
+import web.model.dto.FilmSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Builds the summary queries with a constructor expression, so neither the {@code resume} column nor
+ * the {@code Pays} entity is read and no {@link Film} is hydrated.
+ */
+public class IFilmSummaryQueriesImpl implements IFilmSummaryQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FilmSummary> findSummaries(Specification<Film> specification, Sort sort, int maxRows) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FilmSummary> query = cb.createQuery(FilmSummary.class);
+        Root<Film> root = query.from(Film.class);
+        Join<Film, Pays> pays = root.join("pays", JoinType.LEFT);
+        query.select(cb.construct(FilmSummary.class,
+                root.get("id"), root.get("imdb"), root.get("nom"), root.get("annee"), root.get("rating"), pays.get("name")));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(maxRows).getResultList();
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface IGenreRepository extends JpaRepository<Genre, Long> {
 
@@ -14,6 +16,10 @@ public interface IGenreRepository extends JpaRepository<Genre, Long> {
     @Query("SELECT g FROM Genre g WHERE g.name = :name")
     Genre findByName(@Param("name") String name);
 
+    // Id and name of every genre, without loading the films linked to them
+    @Query("SELECT g.id, g.name FROM Genre g")
+    List<Object[]> findAllIdAndName();
+
     @Query("SELECT g FROM Genre g WHERE g.name = :name")
     default Genre findOrCreateGenre(@Param("name") String name) {
         Genre genre = findByName(name);
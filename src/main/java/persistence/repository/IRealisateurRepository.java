@@ -4,10 +4,12 @@ package persistence.repository;
 
 import entities.business.personne.Personne;
 import entities.business.personne.Realisateur;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -43,6 +45,15 @@ public interface IRealisateurRepository extends JpaRepository<Realisateur, Long>
     Optional<Realisateur> findByIdImdb(String idImdb);
     Optional<Realisateur> findByPersonne(Personne personne);
 
+    /**
+     * Keyset pagination: the realisateurs following the given id, in id order.
+     *
+     * @param id       the id of the last realisateur of the previous page, 0 for the first page
+     * @param pageable the page size (always page 0)
+     * @return at most {@code pageable.getPageSize()} realisateurs
+     */
+    List<Realisateur> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
 
 
 
@@ -2,7 +2,9 @@ package persistence.repository;
 
 
 import entities.business.role.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface IRoleRepository extends JpaRepository<Role, Long> {
+public interface IRoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role> {
 
     /**
      * Find roles by the film's ID.
@@ -22,6 +24,15 @@ public interface IRoleRepository extends JpaRepository<Role, Long> {
     @Query("SELECT r FROM Role r WHERE r.filmId = :filmId")
     List<Role> findByFilmId(@Param("filmId") String filmId);
 
+    /**
+     * Find roles by the film's ID, in insertion order.
+     *
+     * @param filmId The IMDb ID of the film.
+     * @return The roles of the film, ordered by id.
+     */
+    @Query("SELECT r FROM Role r WHERE r.filmId = :filmId ORDER BY r.id")
+    List<Role> findByFilmIdOrderById(@Param("filmId") String filmId);
+
     /**
      * Find roles by the actor's ID.
      *
@@ -88,11 +99,52 @@ public interface IRoleRepository extends JpaRepository<Role, Long> {
      */
     @Query("SELECT r FROM Role r WHERE LOWER(r.roleName) LIKE LOWER(CONCAT('%', :partialRoleName, '%'))")
     List<Role> findByRoleNameContaining(@Param("partialRoleName") String partialRoleName);
+    /**
+     * Films of an actor with the character played, one row per role, read with a single join from the
+     * idx_role_acteur_film_name index to film on its IMDb ID. Latest films first.
+     *
+     * @param acteurId The IMDb ID of the actor.
+     * @return Rows of film id, IMDb ID, name, year, rating and character name.
+     */
+    @Query("SELECT f.id, f.imdb, f.nom, f.annee, f.rating, r.roleName FROM Role r JOIN Film f ON f.imdb = r.filmId " +
+            "WHERE r.acteurId = :acteurId ORDER BY f.anneeDebut DESC, f.id, r.roleName")
+    List<Object[]> findFilmographyRows(@Param("acteurId") String acteurId);
+
+    /**
+     * Film and actor of the roles after the given id, in id order, to load the links between actors and
+     * films one batch at a time.
+     *
+     * @param afterId The id of the last role of the previous batch, 0 for the first batch.
+     * @param pageable The size of the batch.
+     * @return Rows of role id, film IMDb ID and actor IMDb ID.
+     */
+    @Query("SELECT r.id, r.filmId, r.acteurId FROM Role r WHERE r.id > :afterId ORDER BY r.id")
+    List<Object[]> findLinksAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Actors who played in a film with the given actor, through a role or the principal cast on either
+     * side, like the co-star graph. The union removes duplicate pairs.
+     *
+     * @param acteurId The IMDb ID of the actor.
+     * @return Rows of co-star IMDb ID and film IMDb ID.
+     */
+    @Query("SELECT o.acteurId, o.filmId FROM Role r JOIN Role o ON o.filmId = r.filmId " +
+            "WHERE r.acteurId = :acteurId AND o.acteurId <> :acteurId " +
+            "UNION SELECT o.acteurId, o.filmId FROM Role r JOIN CastingPrincipal o ON o.filmId = r.filmId " +
+            "WHERE r.acteurId = :acteurId AND o.acteurId <> :acteurId " +
+            "UNION SELECT o.acteurId, o.filmId FROM CastingPrincipal c JOIN Role o ON o.filmId = c.filmId " +
+            "WHERE c.acteurId = :acteurId AND o.acteurId <> :acteurId " +
+            "UNION SELECT o.acteurId, o.filmId FROM CastingPrincipal c JOIN CastingPrincipal o ON o.filmId = c.filmId " +
+            "WHERE c.acteurId = :acteurId AND o.acteurId <> :acteurId")
+    List<Object[]> findCoStarRows(@Param("acteurId") String acteurId);
+
+    // Whether the actor still has a role in the film, read from the uk_role_film_acteur_name index
+    boolean existsByFilmIdAndActeurId(String filmId, String acteurId);
+
     @Query("SELECT r FROM Role r WHERE r.filmId = :filmId AND r.acteurId = :acteurId AND r.roleName = :roleName")
     Optional<Role> findRoleByFilmIdAndActeurIdAndRoleName(
             @Param("filmId") String filmId,
             @Param("acteurId") String acteurId,
             @Param("roleName") String roleName
     );
-    boolean existsByFilmIdAndActeurIdAndRoleName(String filmId, String acteurId, String roleName);
 }
@@ -0,0 +1,180 @@
+package persistence.specification;
+
+import entities.business.Film.Film;
+import entities.business.pays.Pays;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Criteria API building blocks for the film search. Each method returns null when its criterion is
+ * absent, which {@link Specification#where(Specification)} and {@code and(...)} simply ignore.
+ */
+public final class FilmSpecifications {
+
+    static final char LIKE_ESCAPE = '\\';
+
+    private FilmSpecifications() {
+    }
+
+    /**
+     * Case-insensitive partial match on the film name.
+     */
+    public static Specification<Film> nomContains(String nom) {
+        if (!StringUtils.hasText(nom)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("nom")), containsPattern(nom.toLowerCase()), LIKE_ESCAPE);
+    }
+
+    /**
+     * Partial match on the year, which is stored as text (e.g. {@code 1950–1952}).
+     */
+    public static Specification<Film> anneeContains(String annee) {
+        if (annee == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("annee"), containsPattern(annee), LIKE_ESCAPE);
+    }
+
+    /**
+     * Partial match on the rating, which is stored as text (e.g. {@code 7,8}).
+     */
+    public static Specification<Film> ratingContains(String rating) {
+        if (rating == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("rating"), containsPattern(rating), LIKE_ESCAPE);
+    }
+
+    /**
+     * Range on the numeric rating; either bound may be null.
+     */
+    public static Specification<Film> ratingBetween(Double minRating, Double maxRating) {
+        return between("ratingValue", minRating, maxRating);
+    }
+
+    /**
+     * Range on the first year of release; either bound may be null.
+     */
+    public static Specification<Film> startYearBetween(Integer fromYear, Integer toYear) {
+        return between("anneeDebut", fromYear, toYear);
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Film> between(String field, T min, T max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Expression<T> value = root.get(field);
+            if (min == null) {
+                return cb.lessThanOrEqualTo(value, max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(value, min);
+            }
+            return cb.between(value, min, max);
+        };
+    }
+
+    /**
+     * Case-insensitive match on the name of the film's country.
+     */
+    public static Specification<Film> paysNameEquals(String paysName) {
+        if (!StringUtils.hasText(paysName)) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Join<Film, Pays> pays = root.join("pays");
+            return cb.equal(cb.lower(pays.get("name")), paysName.toLowerCase());
+        };
+    }
+
+    /**
+     * Case-insensitive match of one entry of the comma-separated {@code genres} column, so that
+     * {@code Drama} matches {@code Comedy,Drama} but not {@code Docudrama}.
+     */
+    public static Specification<Film> hasGenre(String genreName) {
+        if (!StringUtils.hasText(genreName)) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Expression<String> genres = cb.function("REPLACE", String.class,
+                    cb.lower(root.get("genres")), cb.literal(", "), cb.literal(","));
+            Expression<String> delimited = cb.concat(cb.concat(",", genres), ",");
+            return cb.like(delimited, "%," + escapeLike(genreName.trim().toLowerCase()) + ",%", LIKE_ESCAPE);
+        };
+    }
+
+    /**
+     * Matches films having every genre of the list when {@code all} is true, or any of them otherwise.
+     * Each genre is matched as by {@link #hasGenre(String)}.
+     */
+    public static Specification<Film> hasGenres(List<String> genreNames, boolean all) {
+        if (genreNames == null || genreNames.isEmpty()) {
+            return null;
+        }
+        Specification<Film> specification = hasGenre(genreNames.get(0));
+        for (String genreName : genreNames.subList(1, genreNames.size())) {
+            specification = all ? specification.and(hasGenre(genreName)) : specification.or(hasGenre(genreName));
+        }
+        return specification;
+    }
+
+    /**
+     * Restricts the films to the given ids.
+     */
+    public static Specification<Film> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Keyset condition selecting the films that come after a cursor position, for results ordered by
+     * {@code attribute} (ascending or descending) and then by ascending id. Null values are ordered
+     * first in ascending order and last in descending order, as MariaDB and H2 do.
+     *
+     * @param attribute nom, anneeDebut, ratingValue or id
+     * @param ascending the direction of the attribute
+     * @param value     the attribute value of the last film of the previous page, unused for id
+     * @param lastId    the id of the last film of the previous page
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Film> after(String attribute, boolean ascending, Comparable value, long lastId) {
+        return (root, query, cb) -> {
+            Predicate laterId = cb.greaterThan(root.get("id"), lastId);
+            if ("id".equals(attribute)) {
+                return laterId;
+            }
+            Expression<Comparable> sortValue = root.get(attribute);
+            if (value == null) {
+                Predicate nullAfter = cb.and(cb.isNull(sortValue), laterId);
+                return ascending ? cb.or(cb.isNotNull(sortValue), nullAfter) : nullAfter;
+            }
+            Predicate sameValue = cb.and(cb.equal(sortValue, value), laterId);
+            return ascending
+                    ? cb.or(cb.greaterThan(sortValue, value), sameValue)
+                    : cb.or(cb.lessThan(sortValue, value), cb.isNull(sortValue), sameValue);
+        };
+    }
+
+    static String containsPattern(String value) {
+        return "%" + escapeLike(value) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
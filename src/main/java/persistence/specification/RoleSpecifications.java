@@ -0,0 +1,53 @@
+package persistence.specification;
+
+import entities.business.role.Role;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * Criteria API building blocks for the role search. Like {@link FilmSpecifications}, each method
+ * returns null when its criterion is absent.
+ */
+public final class RoleSpecifications {
+
+    private RoleSpecifications() {
+    }
+
+    /**
+     * Exact match on the IMDb ID of the film, served by the (film_id, acteur_id, role_name) index.
+     */
+    public static Specification<Role> filmIdEquals(String filmId) {
+        if (!StringUtils.hasText(filmId)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("filmId"), filmId.trim());
+    }
+
+    /**
+     * Exact match on the IMDb ID of the actor, served by the acteur_id index.
+     */
+    public static Specification<Role> acteurIdEquals(String acteurId) {
+        if (!StringUtils.hasText(acteurId)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("acteurId"), acteurId.trim());
+    }
+
+    /**
+     * Case-insensitive partial match on the character name.
+     */
+    public static Specification<Role> roleNameContains(String roleName) {
+        if (!StringUtils.hasText(roleName)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("roleName")),
+                FilmSpecifications.containsPattern(roleName.toLowerCase()), FilmSpecifications.LIKE_ESCAPE);
+    }
+
+    /**
+     * Keyset condition selecting the roles after the last one of the previous page, in id order.
+     */
+    public static Specification<Role> idGreaterThan(long lastId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+    }
+}
@@ -7,7 +7,10 @@ import entities.business.personne.Personne;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 
+import service.graph.CoStarGraph;
 import web.model.dto.ActeurDTO;
+import web.model.dto.CoStar;
+import web.model.dto.FilmographyEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -15,9 +18,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import persistence.repository.IActeurRepository;
 import persistence.repository.IPersonneRepository;
+import persistence.repository.IRoleRepository;
+import web.model.generic.KeysetPage;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,11 +36,16 @@ public class ActeurService {
 
     private final IActeurRepository acteurRepository;
     private final IPersonneRepository personneRepository;
+    private final IRoleRepository roleRepository;
+    private final CoStarGraph coStarGraph;
 
     @Autowired
-    public ActeurService(IActeurRepository acteurRepository, IPersonneRepository personneRepository) {
+    public ActeurService(IActeurRepository acteurRepository, IPersonneRepository personneRepository, IRoleRepository roleRepository,
+                         CoStarGraph coStarGraph) {
         this.acteurRepository = acteurRepository;
         this.personneRepository = personneRepository;
+        this.roleRepository = roleRepository;
+        this.coStarGraph = coStarGraph;
     }
 
     // Convert Entity to DTO
@@ -111,6 +127,84 @@ public class ActeurService {
         acteurRepository.deleteById(id);
     }
 
+    /**
+     * Returns the films of an actor with the characters played, read with one query joining role to
+     * film on their IMDb IDs. The actor itself is only looked up when the actor has no film.
+     *
+     * @param imdb the IMDb ID of the actor
+     * @return one entry per film, latest films first
+     * @throws EntityNotFoundException if no actor has this IMDb ID
+     */
+    public List<FilmographyEntry> findFilmography(String imdb) {
+        // Rows are ordered by film, so the roles of a film are consecutive
+        List<FilmographyEntry> films = new ArrayList<>();
+        List<String> roleNames = null;
+        Long currentFilmId = null;
+        for (Object[] row : roleRepository.findFilmographyRows(imdb)) {
+            Long filmId = (Long) row[0];
+            if (!filmId.equals(currentFilmId)) {
+                roleNames = new ArrayList<>();
+                films.add(new FilmographyEntry(filmId, (String) row[1], (String) row[2], (String) row[3], (String) row[4], roleNames));
+                currentFilmId = filmId;
+            }
+            if (row[5] != null) {
+                roleNames.add((String) row[5]);
+            }
+        }
+        if (films.isEmpty() && acteurRepository.findByImdb(imdb).isEmpty()) {
+            throw new EntityNotFoundException("Acteur not found with IMDb ID: " + imdb);
+        }
+        return films;
+    }
+
+    /**
+     * Returns the actors who played in a film with the given actor, read from the in-memory co-star
+     * graph, or with one query on role and casting_principal while the graph is not built yet, so both
+     * sources return the same co-stars. The actor itself is only looked up when the actor has no
+     * co-star.
+     *
+     * @param imdb  the IMDb ID of the actor
+     * @param limit the maximum number of co-stars
+     * @return the co-stars with the most shared films first, then by IMDb ID
+     * @throws EntityNotFoundException if no actor has this IMDb ID
+     * @throws InvalidDataException if the limit is invalid
+     */
+    public List<CoStar> findCoStars(String imdb, int limit) {
+        KeysetPage.checkLimit(limit);
+        Map<String, SortedSet<String>> sharedFilms = coStarGraph.sharedFilms(imdb);
+        if (sharedFilms == null) {
+            sharedFilms = new HashMap<>();
+            for (Object[] row : roleRepository.findCoStarRows(imdb)) {
+                sharedFilms.computeIfAbsent((String) row[0], key -> new TreeSet<>()).add((String) row[1]);
+            }
+        }
+        if (sharedFilms.isEmpty()) {
+            if (acteurRepository.findByImdb(imdb).isEmpty()) {
+                throw new EntityNotFoundException("Acteur not found with IMDb ID: " + imdb);
+            }
+            return List.of();
+        }
+
+        List<Map.Entry<String, SortedSet<String>>> ranked = new ArrayList<>(sharedFilms.entrySet());
+        ranked.sort(Comparator.<Map.Entry<String, SortedSet<String>>>comparingInt(entry -> -entry.getValue().size())
+                .thenComparing(Map.Entry::getKey));
+        ranked = ranked.subList(0, Math.min(limit, ranked.size()));
+
+        // Names of the kept co-stars only, with their personne in the same query
+        Map<String, Acteur> acteurs = new HashMap<>();
+        for (Acteur acteur : acteurRepository.findWithPersonneByImdbIn(ranked.stream().map(Map.Entry::getKey).toList())) {
+            acteurs.put(acteur.getIdImdb(), acteur);
+        }
+        List<CoStar> coStars = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, SortedSet<String>> entry : ranked) {
+            Acteur acteur = acteurs.get(entry.getKey());
+            Personne personne = acteur == null ? null : acteur.getPersonne();
+            coStars.add(new CoStar(entry.getKey(), personne == null ? null : personne.getIdentite(),
+                    entry.getValue().size(), List.copyOf(entry.getValue())));
+        }
+        return coStars;
+    }
+
     // Method to search and sort acteurs
     public List<ActeurDTO> findActeursWithFiltersAndSorting(String identite, String dateNaissance, String sortBy) {
         // Build sort object
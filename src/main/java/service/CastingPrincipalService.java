@@ -8,6 +8,7 @@ import exceptions.ServiceException;
 import persistence.repository.ICastingPrincipalRepository;
 import web.model.dto.CastingPrincipalDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 
@@ -15,10 +16,12 @@ import org.springframework.stereotype.Service;
 public class CastingPrincipalService {
 
     private final ICastingPrincipalRepository castingPrincipalRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CastingPrincipalService(ICastingPrincipalRepository castingPrincipalRepository) {
+    public CastingPrincipalService(ICastingPrincipalRepository castingPrincipalRepository, ApplicationEventPublisher eventPublisher) {
         this.castingPrincipalRepository = castingPrincipalRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public CastingPrincipalDTO getCastingByFilmAndActeur(String filmId, String acteurId) {
@@ -43,6 +46,7 @@ public class CastingPrincipalService {
                 throw new InvalidDataException("Film ID and Actor ID are required to create a casting");
             }
             castingPrincipalRepository.save(castingPrincipal);
+            eventPublisher.publishEvent(new RoleChangedEvent(castingPrincipal.getFilmId(), castingPrincipal.getActeurId(), false));
         } catch (InvalidDataException e) {
             throw e;
         } catch (Exception e) {
@@ -60,11 +64,15 @@ public class CastingPrincipalService {
             CastingPrincipal existingCasting = castingPrincipalRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Casting not found with id: " + id));
 
+            String previousFilmId = existingCasting.getFilmId();
+            String previousActeurId = existingCasting.getActeurId();
             existingCasting.setFilmId(updatedCasting.getFilmId());
             existingCasting.setActeurId(updatedCasting.getActeurId());
 
 
             castingPrincipalRepository.save(existingCasting);
+            eventPublisher.publishEvent(new RoleChangedEvent(previousFilmId, previousActeurId, true));
+            eventPublisher.publishEvent(new RoleChangedEvent(existingCasting.getFilmId(), existingCasting.getActeurId(), false));
         } catch (EntityNotFoundException | InvalidDataException e) {
             throw e;
         } catch (Exception e) {
@@ -81,6 +89,7 @@ public class CastingPrincipalService {
                 throw new EntityNotFoundException("Casting not found for the provided film and actor");
             }
             castingPrincipalRepository.deleteByFilmIdAndActeurId(filmId, acteurId);
+            eventPublisher.publishEvent(new RoleChangedEvent(filmId, acteurId, true));
         } catch (EntityNotFoundException | InvalidDataException e) {
             throw e;
         } catch (Exception e) {
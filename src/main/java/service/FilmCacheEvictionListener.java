@@ -0,0 +1,47 @@
+package service;
+
+import utilities.database.DataImportCompletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the film caches consistent with the database: the entry of a film is evicted when it is
+ * written through the API, along with every cached search since any of them may include it, and
+ * every entry is evicted once the data import has finished.
+ * <p>
+ * Film changes are handled once their transaction has committed: evicting earlier would let a
+ * concurrent lookup or search cache the rows as they were before the commit, and a rolled back change
+ * evicts nothing.
+ */
+@Component
+public class FilmCacheEvictionListener {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmChanged(FilmChangedEvent event) {
+        Cache films = cacheManager.getCache(FilmCaches.FILMS_BY_IMDB);
+        if (films != null && event.imdb() != null) {
+            films.evict(event.imdb());
+        }
+        clear(FilmCaches.FILM_SEARCH_IDS);
+    }
+
+    @EventListener
+    public void onDataImportCompleted(DataImportCompletedEvent event) {
+        clear(FilmCaches.FILMS_BY_IMDB);
+        clear(FilmCaches.FILM_SEARCH_IDS);
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package service;
+
+/**
+ * Names of the film caches. Their size and expiry are set by {@code spring.cache.caffeine.spec}.
+ */
+public final class FilmCaches {
+
+    // FilmDTO by IMDb ID, filled by FilmService#findFilmByImdb
+    public static final String FILMS_BY_IMDB = "filmsByImdb";
+
+    // Ids of the films of a search page by FilmSearchKey, filled by FilmService
+    public static final String FILM_SEARCH_IDS = "filmSearchIds";
+
+    private FilmCaches() {
+    }
+}
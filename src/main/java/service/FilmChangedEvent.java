@@ -0,0 +1,18 @@
+package service;
+
+import entities.business.Film.Film;
+
+/**
+ * Published by {@link FilmService} after a film has been created, updated or deleted through the API,
+ * so in-memory views of the films can be kept up to date.
+ *
+ * @param filmId the id of the film
+ * @param imdb   the IMDb ID of the film
+ * @param film   the saved film, or null if it was deleted
+ */
+public record FilmChangedEvent(Long filmId, String imdb, Film film) {
+
+    public boolean isDeletion() {
+        return film == null;
+    }
+}
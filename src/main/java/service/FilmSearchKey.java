@@ -0,0 +1,13 @@
+package service;
+
+import web.model.dto.FilmSearchCriteria;
+
+/**
+ * Key of the {@value FilmCaches#FILM_SEARCH_IDS} cache: one page of one search.
+ *
+ * @param criteria the normalized criteria, see {@link FilmSearchCriteria#normalized()}
+ * @param after    the cursor of the page, null for the first page
+ * @param limit    the page size
+ */
+public record FilmSearchKey(FilmSearchCriteria criteria, String after, int limit) {
+}
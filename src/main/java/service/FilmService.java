@@ -4,151 +4,547 @@ package service;
 import entities.business.Film.Film;
 import entities.business.genre.Genre;
 import entities.business.pays.Pays;
+import entities.business.personne.Acteur;
+import entities.business.personne.Personne;
+import entities.business.role.Role;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
+import persistence.repository.IActeurRepository;
+import persistence.repository.ICastingPrincipalRepository;
 import persistence.repository.IFilmRepository;
 import persistence.repository.IGenreRepository;
 import persistence.repository.IPaysRepository;
+import persistence.repository.IRoleRepository;
+import persistence.specification.FilmSpecifications;
+import service.search.FilmGenreIndex;
+import service.search.FilmTextIndex;
+import service.search.TextNormalizer;
+import web.model.dto.CastMember;
 import web.model.dto.FilmDTO;
+import web.model.dto.FilmSearchCriteria;
+import web.model.dto.FilmSummary;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class FilmService {
 
+    // Largest id list passed to one IN condition when filtering by genre from the genre index
+    private static final int MAX_ID_LIST_SIZE = 1000;
+
+    // Associations fetched with the films of a list (a fetch graph applied to the query), since FilmDTO
+    // exposes the country: one select per page instead of one more per film
+    private static final String FILM_LIST_FETCH = "pays";
+
     @Autowired
     private IFilmRepository filmRepository;
     @Autowired
     private IGenreRepository genreRepository;
     @Autowired
     private IPaysRepository paysRepository;
+    @Autowired
+    private FilmTextIndex filmTextIndex;
+    @Autowired
+    private FilmGenreIndex filmGenreIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private IRoleRepository roleRepository;
 
-    public List<FilmDTO> findFilmsWithFiltersAndSorting(String nom, String annee, String rating, String paysName, String genreName, String sortBy) {
-        List<Film> films = filmRepository.findAll();
+    @Autowired
+    private ICastingPrincipalRepository castingPrincipalRepository;
+
+    @Autowired
+    private IActeurRepository acteurRepository;
+
+    /**
+     * Searches films with optional filters, one keyset page at a time. Filtering, sorting and paging
+     * are done by the database, so only the films of the requested page are loaded. Genre filters are
+     * resolved from {@link FilmGenreIndex} when it is built. The ids of each page are cached by
+     * normalized criteria in {@value FilmCaches#FILM_SEARCH_IDS}, so repeating a search only loads
+     * the films of those ids.
+     *
+     * @param criteria the filters and the sort order; sortBy is nom, annee or rating, prefixed with
+     *                 {@code -} for descending order, and films are ordered by id when it is absent
+     *                 and by id within equal values otherwise. The year and the rating are ordered by
+     *                 their numeric value, films without one come first in ascending order
+     * @param after    the cursor returned with the previous page, null for the first page
+     * @param limit    the maximum number of films of the page
+     * @return the page of matching films
+     * @throws EntityNotFoundException if no film matches
+     * @throws IllegalArgumentException if the sort field is not supported
+     * @throws InvalidDataException if the cursor, the limit, a range or the genre mode is invalid
+     */
+    public KeysetPage<FilmDTO> findFilmsWithFiltersAndSorting(FilmSearchCriteria criteria, String after, int limit) {
+        return search(criteria, after, limit,
+                (specification, sort, maxRows) -> filmRepository.findBy(specification,
+                        query -> query.project(FILM_LIST_FETCH).sortBy(sort).limit(maxRows).all()),
+                film -> new SortKey(film.getId(), film.getNom(), film.getAnneeDebut(), film.getRatingValue()),
+                FilmDTO::fromEntity);
+    }
 
-        if (StringUtils.hasText(nom)) {
-            films = films.stream().filter(film -> film.getNom().toLowerCase().contains(nom.toLowerCase())).collect(Collectors.toList());
+    /**
+     * Same search as {@link #findFilmsWithFiltersAndSorting}, returning {@link FilmSummary} rows that
+     * are selected without the summary text and the country entity.
+     */
+    public KeysetPage<FilmSummary> findFilmSummariesWithFiltersAndSorting(FilmSearchCriteria criteria, String after, int limit) {
+        return search(criteria, after, limit,
+                filmRepository::findSummaries,
+                summary -> new SortKey(summary.id(), summary.nom(), Film.parseStartYear(summary.annee()), Film.parseRating(summary.rating())),
+                summary -> summary);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E, T> KeysetPage<T> search(FilmSearchCriteria rawCriteria, String after, int limit,
+                                        RowQuery<E> rowQuery, Function<E, SortKey> keyOf, Function<E, T> mapper) {
+        KeysetPage.checkLimit(limit);
+        FilmSearchCriteria criteria = rawCriteria.normalized();
+        checkRange(criteria.getMinRating(), criteria.getMaxRating(), "minRating", "maxRating");
+        checkRange(criteria.getFromYear(), criteria.getToYear(), "fromYear", "toYear");
+        List<String> genreNames = parseGenreNames(criteria.getGenreName());
+        boolean allGenres = parseGenreMode(criteria.getGenreMode());
+
+        String sortKey = StringUtils.hasText(criteria.getSortBy()) ? criteria.getSortBy() : "id";
+        boolean ascending = !sortKey.startsWith("-");
+        String sortField = ascending ? sortKey : sortKey.substring(1);
+        Sort sort = toSort(sortField, ascending);
+        KeysetCursor cursor = KeysetCursor.decode(after, sortKey);
+
+        Specification<Film> specification = Specification.where(FilmSpecifications.nomContains(criteria.getNom()))
+                .and(FilmSpecifications.anneeContains(criteria.getAnnee()))
+                .and(FilmSpecifications.ratingContains(criteria.getRating()))
+                .and(FilmSpecifications.ratingBetween(criteria.getMinRating(), criteria.getMaxRating()))
+                .and(FilmSpecifications.startYearBetween(criteria.getFromYear(), criteria.getToYear()))
+                .and(FilmSpecifications.paysNameEquals(criteria.getPaysName()));
+        if (cursor != null) {
+            specification = specification.and(FilmSpecifications.after(sortAttribute(sortField), ascending,
+                    cursorValue(sortField, cursor.value()), cursor.id()));
         }
-        if (annee != null) {
-            films = films.stream().filter(film -> film.getAnnee().contains(annee)).collect(Collectors.toList());
+
+        // A repeated search only loads the rows of the ids found the first time
+        Cache searchIds = cacheManager.getCache(FilmCaches.FILM_SEARCH_IDS);
+        FilmSearchKey key = new FilmSearchKey(criteria, after, limit);
+        List<Long> cachedIds = searchIds == null ? null : searchIds.get(key, List.class);
+        if (cachedIds != null) {
+            List<E> rows = cachedIds.isEmpty() ? List.of() : rowQuery.find(FilmSpecifications.idIn(cachedIds), sort, cachedIds.size());
+            return toPage(rows, cursor, sortKey, sortField, limit, keyOf, mapper);
         }
-        if (rating != null) {
-            films = films.stream().filter(film -> film.getRating().contains(rating)).collect(Collectors.toList());
+
+        // One extra row tells whether there is a next page, without a count query
+        List<E> rows = null;
+        BitSet genreMatches = genreNames.isEmpty() ? null : filmGenreIndex.match(genreNames, allGenres);
+        if (genreMatches != null) {
+            rows = findAmong(genreMatches, specification, sort, "id".equals(sortField), cursor == null ? 0L : cursor.id(), limit + 1, rowQuery);
         }
-        if (StringUtils.hasText(paysName)) {
-            films = films.stream()
-                    .filter(film -> film.getPays() != null &&
-                            film.getPays().getName().equalsIgnoreCase(paysName))
-                    .collect(Collectors.toList());
+        if (rows == null) {
+            rows = rowQuery.find(specification.and(FilmSpecifications.hasGenres(genreNames, allGenres)), sort, limit + 1);
         }
-        if (StringUtils.hasText(genreName)) {
-            films = films.stream()
-                    .filter(film -> {
-                        // Split the genres string by the delimiter (e.g., comma)
-                        String[] genresArray = film.getGenres().split(",\\s*"); // Adjust delimiter if needed
-                        // Check if the genreName is present in the genresArray
-                        return Arrays.stream(genresArray)
-                                .anyMatch(genre -> genre.equalsIgnoreCase(genreName));
-                    })
-                    .collect(Collectors.toList());
+
+        if (searchIds != null) {
+            searchIds.put(key, rows.stream().map(row -> keyOf.apply(row).id()).toList());
         }
+        return toPage(rows, cursor, sortKey, sortField, limit, keyOf, mapper);
+    }
 
-        if (StringUtils.hasText(sortBy)) {
-            boolean ascending = !sortBy.startsWith("-");
-            String sortField = ascending ? sortBy : sortBy.substring(1);
+    private static <E, T> KeysetPage<T> toPage(List<E> rows, KeysetCursor cursor, String sortKey, String sortField, int limit,
+                                               Function<E, SortKey> keyOf, Function<E, T> mapper) {
+        if (rows.isEmpty() && cursor == null) {
+            throw new EntityNotFoundException("No films found matching the criteria");
+        }
+        return KeysetPage.of(rows, limit,
+                row -> {
+                    SortKey key = keyOf.apply(row);
+                    return new KeysetCursor(sortKey, key.value(sortField), key.id());
+                },
+                mapper);
+    }
 
-            films = films.stream()
-                    .sorted((f1, f2) -> compareFilmsByField(f1, f2, sortField, ascending))
-                    .collect(Collectors.toList());
+    /**
+     * Loads the rows of the films matching a specification, in the given order.
+     */
+    private interface RowQuery<E> {
+        List<E> find(Specification<Film> specification, Sort sort, int maxRows);
+    }
+
+    /**
+     * The id and the sortable values of a row, from which its keyset cursor is built. The year and the
+     * rating are the numeric values the rows are ordered by, encoded as text in the cursor.
+     */
+    private record SortKey(Long id, String nom, Integer anneeDebut, Double ratingValue) {
+        String value(String sortField) {
+            switch (sortField) {
+                case "nom":
+                    return nom;
+                case "annee":
+                    return anneeDebut == null ? null : anneeDebut.toString();
+                case "rating":
+                    return ratingValue == null ? null : ratingValue.toString();
+                default:
+                    return null;
+            }
         }
+    }
 
-        if (films.isEmpty()) {
-            throw new EntityNotFoundException("No films found matching the criteria");
+    // Decodes the sort value of a cursor; an empty year or rating is a film without a numeric value
+    private static Comparable<?> cursorValue(String sortField, String value) {
+        try {
+            switch (sortField) {
+                case "annee":
+                    return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+                case "rating":
+                    return value == null || value.isEmpty() ? null : Double.valueOf(value);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException("Invalid pagination cursor");
         }
+    }
 
-        return films.stream().map(FilmDTO::fromEntity).collect(Collectors.toList());
+    /**
+     * Loads the first rows among the given film ids that match the specification. Small id sets are passed
+     * to the query as one IN list. Larger ones are walked in id order, one IN list at a time, which
+     * only works when sorting by id.
+     *
+     * @return the rows, or null if the ids are too many for the sort order
+     */
+    private <E> List<E> findAmong(BitSet ids, Specification<Film> specification, Sort sort, boolean idOrder,
+                                  long afterId, int maxRows, RowQuery<E> rowQuery) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.cardinality() <= MAX_ID_LIST_SIZE) {
+            return rowQuery.find(specification.and(FilmSpecifications.idIn(toIdList(ids, 0, MAX_ID_LIST_SIZE))), sort, maxRows);
+        }
+        if (!idOrder) {
+            return null;
+        }
+        List<E> rows = new ArrayList<>();
+        int from = (int) afterId + 1;
+        while (rows.size() < maxRows && from >= 0) {
+            List<Long> chunk = toIdList(ids, from, MAX_ID_LIST_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            from = chunk.get(chunk.size() - 1).intValue() + 1;
+            rows.addAll(rowQuery.find(specification.and(FilmSpecifications.idIn(chunk)), sort, maxRows - rows.size()));
+        }
+        return rows;
+    }
+
+    private static List<Long> toIdList(BitSet ids, int from, int maxSize) {
+        List<Long> list = new ArrayList<>();
+        for (int id = ids.nextSetBit(from); id >= 0 && list.size() < maxSize; id = ids.nextSetBit(id + 1)) {
+            list.add((long) id);
+        }
+        return list;
+    }
+
+    private static <T extends Comparable<T>> void checkRange(T min, T max, String minName, String maxName) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidDataException(minName + " cannot be greater than " + maxName);
+        }
+    }
+
+    private static List<String> parseGenreNames(String genreName) {
+        if (!StringUtils.hasText(genreName)) {
+            return List.of();
+        }
+        return Arrays.stream(genreName.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static boolean parseGenreMode(String genreMode) {
+        if (!StringUtils.hasText(genreMode) || "any".equalsIgnoreCase(genreMode)) {
+            return false;
+        }
+        if ("all".equalsIgnoreCase(genreMode)) {
+            return true;
+        }
+        throw new InvalidDataException("Unsupported genre mode: " + genreMode + " (expected all or any)");
     }
 
-    private int compareFilmsByField(Film f1, Film f2, String field, boolean ascending) {
-        int comparison = 0;
-        switch (field) {
+    private Sort toSort(String sortField, boolean ascending) {
+        String attribute = sortAttribute(sortField);
+        if ("id".equals(attribute)) {
+            return Sort.by(Sort.Direction.ASC, "id");
+        }
+        // The id makes the order total, which keyset pagination relies on
+        return Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, attribute)
+                .and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    // The attribute a sort field orders by: the year and the rating are stored as text ("1950–1952",
+    // "7,8" or "7.8"), so they are ordered by their numeric copies
+    private static String sortAttribute(String sortField) {
+        switch (sortField) {
+            case "id":
             case "nom":
-                comparison = f1.getNom().compareToIgnoreCase(f2.getNom());
-                break;
+                return sortField;
             case "annee":
-                comparison = CharSequence.compare(f1.getAnnee(), f2.getAnnee());
-                break;
+                return "anneeDebut";
             case "rating":
-                comparison = CharSequence.compare(f1.getRating(), f2.getRating());
-                break;
+                return "ratingValue";
             default:
-                throw new IllegalArgumentException("Unsupported sorting field: " + field);
+                throw new IllegalArgumentException("Unsupported sorting field: " + sortField);
         }
-        return ascending ? comparison : -comparison;
     }
 
     /**
-     * Finds a film by its IMDb ID and converts it to FilmDTO.
+     * Finds a film by its IMDb ID and converts it to FilmDTO. Found films are cached; the entry is
+     * evicted when the film is written, see {@link FilmCacheEvictionListener}.
      *
      * @param imdb the IMDb ID of the film
      * @return the FilmDTO object if found
      * @throws EntityNotFoundException if no film is found with the given IMDb ID
      */
+    @Cacheable(cacheNames = FilmCaches.FILMS_BY_IMDB, unless = "#result == null")
     public Optional<FilmDTO> findFilmByImdb(String imdb) {
         // Find the film using the repository method, which returns an Optional<Film>
-        Optional<Film> filmOptional = filmRepository.findByImdb(imdb);
+        Optional<Film> filmOptional = filmRepository.findWithPaysByImdb(imdb);
 
         // Convert Film entity to FilmDTO if film is found, otherwise return Optional.empty()
         return filmOptional.map(FilmDTO::fromEntity);
     }
 
+    /**
+     * Checks whether a film with the given IMDb ID exists, without loading or mapping it.
+     *
+     * @param imdb the IMDb ID of the film
+     * @return true if the film exists
+     */
+    public boolean existsByImdb(String imdb) {
+        return filmRepository.existsByImdb(imdb);
+    }
+
+    /**
+     * Returns the IMDb IDs of every stored film.
+     *
+     * @return the IMDb IDs
+     */
+    public List<String> findAllImdb() {
+        return filmRepository.findAllImdb();
+    }
+
+    /**
+     * Finds the films whose name has, for each word of the given name, a word starting with it, ignoring
+     * case and accents: "star wa" finds "Star Wars" but "tar" does not. The text index answers when it
+     * is built; until then the same match is done with a {@code LIKE} query per word, whose rows are
+     * then filtered on word starts, see {@link #findByNameWords}.
+     *
+     * @param nom the searched name
+     * @return the matching films in id order
+     * @throws EntityNotFoundException if no film matches
+     */
     public List<FilmDTO> findFilmsByName(String nom) {
-        List<Film> films = filmRepository.findByNomContainingIgnoreCase(nom);
+        List<Long> ids = filmTextIndex.findByName(nom);
+        List<Film> films = ids != null
+                ? findAllInOrder(ids)
+                : findByNameWords(nom, specification -> filmRepository.findBy(specification,
+                        query -> query.project(FILM_LIST_FETCH).sortBy(Sort.by(Sort.Direction.ASC, "id")).all()), Film::getNom);
+        if (films.isEmpty()) {
+            throw new EntityNotFoundException("No films found with name matching: " + nom);
+        }
+        return films.stream().map(FilmDTO::fromEntity).collect(Collectors.toList());
+    }
+
+    /**
+     * Same lookup as {@link #findFilmsByName}, returning {@link FilmSummary} rows.
+     *
+     * @param nom the searched name
+     * @return the summaries of the matching films in id order
+     * @throws EntityNotFoundException if no film matches
+     */
+    public List<FilmSummary> findFilmSummariesByName(String nom) {
+        List<Long> ids = filmTextIndex.findByName(nom);
+        Sort byId = Sort.by(Sort.Direction.ASC, "id");
+        List<FilmSummary> summaries;
+        if (ids == null) {
+            summaries = findByNameWords(nom, specification -> filmRepository.findSummaries(specification, byId, Integer.MAX_VALUE),
+                    FilmSummary::nom);
+        } else {
+            summaries = ids.isEmpty() ? List.of() : filmRepository.findSummaries(FilmSpecifications.idIn(ids), byId, Integer.MAX_VALUE);
+        }
+        if (summaries.isEmpty()) {
+            throw new EntityNotFoundException("No films found with name matching: " + nom);
+        }
+        return summaries;
+    }
+
+    // Database fallback of FilmTextIndex#findByName: every word of the query must be contained in the
+    // name (LIKE is accent-insensitive with the MariaDB collations), then the rows are kept if the name
+    // has a word starting with each of them, like the index does
+    private static <E> List<E> findByNameWords(String nom, Function<Specification<Film>, List<E>> query, Function<E, String> nameOf) {
+        List<String> words = TextNormalizer.tokenize(nom);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Specification<Film> specification = FilmSpecifications.nomContains(words.get(0));
+        for (String word : words.subList(1, words.size())) {
+            specification = specification.and(FilmSpecifications.nomContains(word));
+        }
+        return query.apply(specification).stream()
+                .filter(row -> TextNormalizer.startsWords(nameOf.apply(row), words))
+                .toList();
+    }
+
+    /**
+     * Ranked full-text search over the name, filming locations and summary of the films. Until the
+     * text index is built, only the names are searched, in the database and without ranking.
+     *
+     * @param query the searched text
+     * @param limit the maximum number of films
+     * @return the matching films, best first
+     * @throws InvalidDataException if the query is blank or the limit is invalid
+     * @throws EntityNotFoundException if no film matches
+     */
+    public List<FilmDTO> searchFullText(String query, int limit) {
+        if (!StringUtils.hasText(query)) {
+            throw new InvalidDataException("Search query cannot be blank");
+        }
+        KeysetPage.checkLimit(limit);
+        List<Long> ids = filmTextIndex.search(query, limit);
+        List<Film> films = ids != null
+                ? findAllInOrder(ids)
+                : filmRepository.findBy(FilmSpecifications.nomContains(query),
+                        q -> q.project(FILM_LIST_FETCH).sortBy(Sort.by(Sort.Direction.ASC, "id")).limit(limit).all());
         if (films.isEmpty()) {
-            throw new EntityNotFoundException("No films found with name containing: " + nom);
+            throw new EntityNotFoundException("No films found matching: " + query);
         }
         return films.stream().map(FilmDTO::fromEntity).collect(Collectors.toList());
     }
 
+    // Loads the films and their country with one query and returns them in the order of the ids
+    private List<Film> findAllInOrder(List<Long> ids) {
+        Map<Long, Film> byId = new HashMap<>();
+        for (Film film : filmRepository.findWithPaysByIdIn(ids)) {
+            byId.put(film.getId(), film);
+        }
+        List<Film> films = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Film film = byId.get(id);
+            if (film != null) {
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    /**
+     * Returns the cast of a film: the principal cast first, then the other actors, each in the order of
+     * their first role. The roles, the principal cast and the actors with their Personne are read with
+     * three queries whatever the size of the cast; the actors are resolved with batched {@code IN} lists.
+     *
+     * @param imdb the IMDb ID of the film
+     * @return the cast of the film
+     * @throws EntityNotFoundException if no film has this IMDb ID
+     */
+    public List<CastMember> findCast(String imdb) {
+        List<Role> roles = roleRepository.findByFilmIdOrderById(imdb);
+        Set<String> principals = new LinkedHashSet<>(castingPrincipalRepository.findActeurIdsByFilmId(imdb));
+        if (roles.isEmpty() && principals.isEmpty() && !filmRepository.existsByImdb(imdb)) {
+            throw new EntityNotFoundException("Film not found with IMDb ID: " + imdb);
+        }
+
+        // Characters of each actor, actors in the order of their first role
+        Map<String, List<String>> roleNames = new LinkedHashMap<>();
+        for (Role role : roles) {
+            List<String> names = roleNames.computeIfAbsent(role.getActeurId(), acteurId -> new ArrayList<>());
+            if (role.getRoleName() != null) {
+                names.add(role.getRoleName());
+            }
+        }
+        for (String principal : principals) {
+            roleNames.putIfAbsent(principal, new ArrayList<>());
+        }
+
+        Map<String, Acteur> acteurs = new HashMap<>();
+        List<String> acteurIds = new ArrayList<>(roleNames.keySet());
+        for (int from = 0; from < acteurIds.size(); from += MAX_ID_LIST_SIZE) {
+            List<String> batch = acteurIds.subList(from, Math.min(from + MAX_ID_LIST_SIZE, acteurIds.size()));
+            for (Acteur acteur : acteurRepository.findWithPersonneByImdbIn(batch)) {
+                acteurs.put(acteur.getIdImdb(), acteur);
+            }
+        }
+
+        List<CastMember> cast = new ArrayList<>(roleNames.size());
+        for (Map.Entry<String, List<String>> entry : roleNames.entrySet()) {
+            Acteur acteur = acteurs.get(entry.getKey());
+            Personne personne = acteur == null ? null : acteur.getPersonne();
+            cast.add(new CastMember(entry.getKey(),
+                    personne == null ? null : personne.getIdentite(),
+                    personne == null ? null : personne.getUrl(),
+                    principals.contains(entry.getKey()),
+                    entry.getValue()));
+        }
+        // Stable sort: the order of the first roles is kept within each group
+        cast.sort(Comparator.comparing(member -> !member.principal()));
+        return cast;
+    }
+
     public FilmDTO createFilm(FilmDTO filmDTO) {
         if (filmDTO == null) {
             throw new InvalidDataException("Film data cannot be null");
         }
         Film film = filmDTO.toEntity();
         Film savedFilm = filmRepository.save(film);
+        eventPublisher.publishEvent(new FilmChangedEvent(savedFilm.getId(), savedFilm.getImdb(), savedFilm));
         return FilmDTO.fromEntity(savedFilm);
     }
 
+    // Transactional: the film and its country stay managed until they are mapped to the DTO
+    @Transactional
     public FilmDTO updateFilm(Long id, FilmDTO filmDTO) {
         if (filmDTO == null) {
             throw new InvalidDataException("Film data cannot be null");
         }
-        Film existingFilm = filmRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Film not found with ID: " + id));
+        Film existingFilm = filmRepository.findWithPaysById(id).orElseThrow(() -> new EntityNotFoundException("Film not found with ID: " + id));
         existingFilm.setNom(filmDTO.getNom());
         existingFilm.setAnnee(filmDTO.getAnnee());
         existingFilm.setRating(filmDTO.getRating());
         // Update other fields similarly
 
         Film updatedFilm = filmRepository.save(existingFilm);
+        eventPublisher.publishEvent(new FilmChangedEvent(updatedFilm.getId(), updatedFilm.getImdb(), updatedFilm));
         return FilmDTO.fromEntity(updatedFilm);
     }
 
     public void deleteFilm(Long id) {
         Film film = filmRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Film not found with ID: " + id));
         filmRepository.delete(film);
+        eventPublisher.publishEvent(new FilmChangedEvent(id, film.getImdb(), null));
     }
 
-    ////public List<Film> findFilmsByActor(Long actorId) {
-    //    return filmRepository.findFilmsByActor(actorId);
-    //}
-
     public Genre findOrCreateGenre(String genreName) {
         return genreRepository.findByName(genreName)
                 .orElseGet(new java.util.function.Supplier<Genre>() {
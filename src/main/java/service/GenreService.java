@@ -3,9 +3,12 @@ package service;
 
 import entities.business.genre.Genre;
 import persistence.repository.IGenreRepository;
+import utilities.database.DataImportCompletedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,20 +18,66 @@ public class GenreService {
     @Autowired
     private IGenreRepository genreRepository;
 
+    private ReferenceSnapshot<Genre> snapshot;
+
     public List<Genre> findAll() {
         return genreRepository.findAll();
     }
 
+    /**
+     * Returns the in-memory snapshot of the genres, loading it on first use and after every change.
+     *
+     * @return the snapshot of every genre
+     */
+    public synchronized ReferenceSnapshot<Genre> getSnapshot() {
+        if (snapshot == null) {
+            // Copies with only the id and name, the lazy films of the loaded genres are never read
+            List<Genre> copies = genreRepository.findAll().stream()
+                    .map(genre -> Genre.builder().id(genre.getId()).name(genre.getName()).build())
+                    .toList();
+            snapshot = ReferenceSnapshot.of(copies, Genre::getId, genre -> genre.getId() + ":" + genre.getName());
+        }
+        return snapshot;
+    }
+
+    @EventListener
+    public void onDataImportCompleted(DataImportCompletedEvent event) {
+        invalidateSnapshot();
+    }
+
+    private synchronized void invalidateSnapshot() {
+        snapshot = null;
+    }
+
+    /**
+     * Returns every genre with only its id and name set, leaving the linked films unloaded.
+     *
+     * @return the detached genres
+     */
+    public List<Genre> findAllWithoutFilms() {
+        List<Genre> genres = new ArrayList<>();
+        for (Object[] row : genreRepository.findAllIdAndName()) {
+            Genre genre = new Genre();
+            genre.setId((Long) row[0]);
+            genre.setName((String) row[1]);
+            genres.add(genre);
+        }
+        return genres;
+    }
+
     public Optional<Genre> findById(Long id) {
         return genreRepository.findById(id);
     }
 
     public Genre save(Genre genre) {
-        return genreRepository.save(genre);
+        Genre saved = genreRepository.save(genre);
+        invalidateSnapshot();
+        return saved;
     }
 
     public void deleteById(Long id) {
         genreRepository.deleteById(id);
+        invalidateSnapshot();
     }
 
     public Genre findOrCreateGenre(String genreName) {
@@ -38,7 +87,7 @@ public class GenreService {
         } else {
             Genre newGenre = new Genre();
             newGenre.setName(genreName);
-            return genreRepository.save(newGenre);
+            return save(newGenre);
         }
     }
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package service;
 
 import entities.business.pays.Pays;
 import persistence.repository.IPaysRepository;
+import utilities.database.DataImportCompletedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,24 +17,54 @@ public class PaysService {
     @Autowired
     private IPaysRepository paysRepository;
 
+    private ReferenceSnapshot<Pays> snapshot;
+
     public Pays findOrCreatePays(String paysName) {
         return paysRepository.findByName(paysName)
-                .orElseGet(() -> paysRepository.save(new Pays(null, paysName)));
+                .orElseGet(() -> save(new Pays(null, paysName)));
     }
 
     public List<Pays> findAll() {
         return paysRepository.findAll();
     }
 
+    /**
+     * Returns the in-memory snapshot of the countries, loading it on first use and after every change.
+     *
+     * @return the snapshot of every country
+     */
+    public synchronized ReferenceSnapshot<Pays> getSnapshot() {
+        if (snapshot == null) {
+            // Copies, so the snapshot never shares an instance with the callers of findAll
+            List<Pays> copies = paysRepository.findAll().stream()
+                    .map(pays -> new Pays(pays.getId(), pays.getName()))
+                    .toList();
+            snapshot = ReferenceSnapshot.of(copies, Pays::getId, pays -> pays.getId() + ":" + pays.getName());
+        }
+        return snapshot;
+    }
+
+    @EventListener
+    public void onDataImportCompleted(DataImportCompletedEvent event) {
+        invalidateSnapshot();
+    }
+
+    private synchronized void invalidateSnapshot() {
+        snapshot = null;
+    }
+
     public Optional<Pays> findById(Long id) {
         return paysRepository.findById(id);
     }
 
     public Pays save(Pays pays) {
-        return paysRepository.save(pays);
+        Pays saved = paysRepository.save(pays);
+        invalidateSnapshot();
+        return saved;
     }
 
     public void deleteById(Long id) {
         paysRepository.deleteById(id);
+        invalidateSnapshot();
     }
 }
\ No newline at end of file
@@ -4,9 +4,12 @@ package service;
 import entities.business.personne.Realisateur;
 import persistence.repository.IRealisateurRepository;
 import web.model.dto.RealisateurDTO;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 import exceptions.EntityNotFoundException;
 import exceptions.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -29,6 +32,21 @@ public class RealisateurService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns one keyset page of realisateurs, in id order.
+     *
+     * @param after the cursor returned with the previous page, null for the first page
+     * @param limit the maximum number of realisateurs of the page
+     * @return the page of realisateurs
+     */
+    public KeysetPage<RealisateurDTO> findPage(String after, int limit) {
+        KeysetPage.checkLimit(limit);
+        KeysetCursor cursor = KeysetCursor.decode(after, "id");
+        List<Realisateur> realisateurs = realisateurRepository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor.id(),
+                PageRequest.of(0, limit + 1));
+        return KeysetPage.of(realisateurs, limit, realisateur -> KeysetCursor.ofId(realisateur.getId()), RealisateurDTO::fromEntity);
+    }
+
     public Optional<RealisateurDTO> findById(Long id) {
         return realisateurRepository.findById(id)
                 .map(RealisateurDTO::fromEntity)
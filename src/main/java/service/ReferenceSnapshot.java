@@ -0,0 +1,108 @@
+package service;
+
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable in-memory copy of a small reference table (genres, countries), in id order, with an ETag
+ * derived from its content so clients can revalidate it with {@code If-None-Match}.
+ * <p>
+ * These tables are paged from the snapshot rather than with per-id keyset queries; the cursor has
+ * the same format as the lists paged in the database, such as {@link RealisateurService#findPage}.
+ */
+public final class ReferenceSnapshot<T> {
+
+    private final List<T> items;
+    private final long[] ids;
+    private final String etag;
+
+    private ReferenceSnapshot(List<T> items, long[] ids, String etag) {
+        this.items = items;
+        this.ids = ids;
+        this.etag = etag;
+    }
+
+    /**
+     * @param items       the rows of the table
+     * @param idOf        the id of a row
+     * @param fingerprint the content of a row that is part of the ETag
+     */
+    public static <T> ReferenceSnapshot<T> of(List<T> items, ToLongFunction<T> idOf, Function<T, String> fingerprint) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(idOf));
+        long[] ids = sorted.stream().mapToLong(idOf).toArray();
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (T item : sorted) {
+            digest.update(fingerprint.apply(item).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        return new ReferenceSnapshot<>(List.copyOf(sorted), ids, etag);
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    /**
+     * @return the quoted strong ETag of the snapshot
+     */
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * @param ifNoneMatch the {@code If-None-Match} request header, may be null
+     * @return true if the client already has this version
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns one keyset page of the snapshot, in id order.
+     *
+     * @param after the cursor returned with the previous page, null for the first page
+     * @param limit the maximum number of rows of the page
+     */
+    public KeysetPage<T> page(String after, int limit) {
+        KeysetPage.checkLimit(limit);
+        KeysetCursor cursor = KeysetCursor.decode(after, "id");
+        int from = 0;
+        if (cursor != null) {
+            int index = Arrays.binarySearch(ids, cursor.id());
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        // Row indexes, one more than the limit to tell whether there is a next page
+        List<Integer> rows = new ArrayList<>();
+        for (int i = from; i < items.size() && rows.size() <= limit; i++) {
+            rows.add(i);
+        }
+        return KeysetPage.of(rows, limit, i -> KeysetCursor.ofId(ids[i]), items::get);
+    }
+}
@@ -0,0 +1,17 @@
+package service;
+
+/**
+ * Published by {@link RoleService} and {@link CastingPrincipalService} after a role or a principal
+ * cast entry has been created or deleted through the API, so in-memory views of who played in which
+ * film can be kept up to date. Moving a principal cast entry publishes a deletion and a creation.
+ *
+ * @param filmId   the IMDb ID of the film
+ * @param acteurId the IMDb ID of the actor
+ * @param deletion true if the link was deleted
+ */
+public record RoleChangedEvent(String filmId, String acteurId, boolean deletion) {
+
+    public boolean isDeletion() {
+        return deletion;
+    }
+}
@@ -7,11 +7,16 @@ import exceptions.InvalidDataException;
 import persistence.repository.IRoleRepository;
 import persistence.repository.IFilmRepository;
 import persistence.repository.IActeurRepository;
+import persistence.specification.RoleSpecifications;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import web.model.dto.RoleDTO;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,29 +33,40 @@ public class RoleService {
     @Autowired
     private IActeurRepository actorRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Finds roles based on multiple filters.
+     * Finds roles based on multiple filters, one keyset page at a time in id order. Filtering and
+     * paging are done by the database, on the indexed film_id and acteur_id columns.
      *
-     * @param roleName the name of the role
-     * @param filmId   the ID of the film associated with the role
-     * @param actorId  the ID of the actor associated with the role
-     * @return a list of RoleDTO objects
+     * @param roleName the name of the role (partial match, case insensitive)
+     * @param filmId   the IMDb ID of the film associated with the role
+     * @param actorId  the IMDb ID of the actor associated with the role
+     * @param after    the cursor returned with the previous page, null for the first page
+     * @param limit    the maximum number of roles of the page
+     * @return the page of RoleDTO objects
+     * @throws EntityNotFoundException if no role matches
+     * @throws InvalidDataException if the cursor or the limit is invalid
      */
-    public List<RoleDTO> findRolesWithFilters(String roleName, Long filmId, Long actorId) {
-        List<Role> roles = roleRepository.findAll();
-
-        // Apply filters
-        if (StringUtils.hasText(roleName)) {
-            roles = roles.stream()
-                    .filter(role -> role.getRoleName().toLowerCase().contains(roleName.toLowerCase()))
-                    .collect(Collectors.toList());
+    public KeysetPage<RoleDTO> findRolesWithFilters(String roleName, String filmId, String actorId, String after, int limit) {
+        KeysetPage.checkLimit(limit);
+        KeysetCursor cursor = KeysetCursor.decode(after, "id");
+
+        Specification<Role> specification = Specification.where(RoleSpecifications.filmIdEquals(filmId))
+                .and(RoleSpecifications.acteurIdEquals(actorId))
+                .and(RoleSpecifications.roleNameContains(roleName));
+        if (cursor != null) {
+            specification = specification.and(RoleSpecifications.idGreaterThan(cursor.id()));
         }
 
-        if (roles.isEmpty()) {
+        // One extra row tells whether there is a next page, without a count query
+        List<Role> roles = roleRepository.findBy(specification,
+                query -> query.sortBy(Sort.by(Sort.Direction.ASC, "id")).limit(limit + 1).all());
+        if (roles.isEmpty() && cursor == null) {
             throw new EntityNotFoundException("No roles found matching the criteria");
         }
-
-        return roles.stream().map(RoleDTO::fromEntity).collect(Collectors.toList());
+        return KeysetPage.of(roles, limit, role -> KeysetCursor.ofId(role.getId()), RoleDTO::fromEntity);
     }
     /**
      * Finds roles by role name.
@@ -78,6 +94,7 @@ public class RoleService {
         }
         Role role = roleDTO.toEntity();
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(savedRole.getFilmId(), savedRole.getActeurId(), false));
         return RoleDTO.fromEntity(savedRole);
     }
 
@@ -111,5 +128,6 @@ public class RoleService {
         Role role = roleRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Role not found with ID: " + id));
         roleRepository.delete(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(role.getFilmId(), role.getActeurId(), true));
     }
 }
\ No newline at end of file
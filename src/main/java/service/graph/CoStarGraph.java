@@ -0,0 +1,305 @@
+package service.graph;
+
+import persistence.repository.ICastingPrincipalRepository;
+import persistence.repository.IRoleRepository;
+import service.RoleChangedEvent;
+import utilities.database.DataImportCompletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory bipartite graph of the actors and the films they played in, read from {@code role} and
+ * {@code casting_principal}, answering "who has worked with whom" without joining role to itself.
+ * <p>
+ * IMDb IDs are interned to ints (their rank in a sorted array) and both directions of the graph are
+ * stored in compressed sparse row form: the films of actor {@code a} are
+ * {@code actorFilms[actorOffsets[a] .. actorOffsets[a + 1]]}, and likewise for the actors of a film.
+ * The graph is built once the data import has finished. Roles and principal cast entries written
+ * through the API afterwards, including while the graph is being built, are kept in a small overlay
+ * of added and removed links until the next rebuild. They are only applied once their transaction
+ * has committed.
+ * <p>
+ * Until the graph is built the query methods return null and callers fall back to the database.
+ */
+@Component
+public class CoStarGraph {
+
+    private static final int BUILD_BATCH_SIZE = 10_000;
+    private static final int MAX_PENDING_CHANGES = 10_000;
+
+    @Autowired
+    private IRoleRepository roleRepository;
+
+    @Autowired
+    private ICastingPrincipalRepository castingPrincipalRepository;
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    private volatile Snapshot snapshot;
+    // Set while rebuild() reads the tables, so that the links written meanwhile go to the overlay
+    private volatile boolean building;
+    // Links written since the snapshot was built: true when added, false when removed
+    private final Map<Link, Boolean> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @EventListener
+    public void onDataImportCompleted(DataImportCompletedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        if ((snapshot == null && !building) || event.filmId() == null || event.acteurId() == null) {
+            return;
+        }
+        Link link = new Link(event.acteurId(), event.filmId());
+        if (!event.isDeletion()) {
+            pending.put(link, Boolean.TRUE);
+        } else if (!roleRepository.existsByFilmIdAndActeurId(link.filmId(), link.acteurId())
+                && !castingPrincipalRepository.existsByFilmIdAndActeurId(link.filmId(), link.acteurId())) {
+            // The actor may still be linked to the film through another role or the principal cast
+            pending.put(link, Boolean.FALSE);
+        }
+        if (pending.size() > MAX_PENDING_CHANGES) {
+            rebuildInBackground();
+        }
+    }
+
+    /**
+     * Rebuilds the graph from the role and casting_principal tables. The previous graph keeps serving
+     * queries meanwhile.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        Map<Link, Boolean> applied = new HashMap<>(pending);
+        try {
+            Builder builder = new Builder();
+            long lastId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = roleRepository.findLinksAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    builder.add((String) row[2], (String) row[1]);
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+            lastId = 0L;
+            do {
+                rows = castingPrincipalRepository.findLinksAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    builder.add((String) row[2], (String) row[1]);
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+            snapshot = builder.build();
+            // Changes made during the rebuild stay in the overlay, the others are now in the snapshot:
+            // a link is only dropped if its change was not overwritten meanwhile
+            applied.forEach((link, added) -> pending.remove(link, added));
+            System.out.println("Co-star graph built: " + snapshot.actorIds.length + " actors, " + snapshot.filmIds.length
+                    + " films, " + snapshot.actorFilms.length + " links in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (RuntimeException e) {
+            System.err.println("Co-star graph could not be built: " + e.getMessage());
+        } finally {
+            building = false;
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    /**
+     * Returns the actors who played in a film with the given actor, with the films they share.
+     *
+     * @param acteurImdb the IMDb ID of the actor
+     * @return the IMDb IDs of the shared films by co-star IMDb ID, empty if the actor has no link, or
+     * null if the graph is not built yet
+     */
+    public Map<String, SortedSet<String>> sharedFilms(String acteurImdb) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        Map<Link, Boolean> changes = Map.copyOf(pending);
+
+        // Films of the actor: built links that were not removed, then the added ones
+        List<String> films = new ArrayList<>();
+        int actor = current.actor(acteurImdb);
+        if (actor >= 0) {
+            for (int i = current.actorOffsets[actor]; i < current.actorOffsets[actor + 1]; i++) {
+                String film = current.filmIds[current.actorFilms[i]];
+                if (!changes.containsKey(new Link(acteurImdb, film))) {
+                    films.add(film);
+                }
+            }
+        }
+        Map<String, List<String>> addedActorsByFilm = new HashMap<>();
+        for (Map.Entry<Link, Boolean> change : changes.entrySet()) {
+            if (change.getValue()) {
+                Link link = change.getKey();
+                addedActorsByFilm.computeIfAbsent(link.filmId(), film -> new ArrayList<>()).add(link.acteurId());
+                if (link.acteurId().equals(acteurImdb)) {
+                    films.add(link.filmId());
+                }
+            }
+        }
+
+        Map<String, SortedSet<String>> shared = new HashMap<>();
+        for (String film : films) {
+            int filmIndex = current.film(film);
+            if (filmIndex >= 0) {
+                for (int i = current.filmOffsets[filmIndex]; i < current.filmOffsets[filmIndex + 1]; i++) {
+                    String coStar = current.actorIds[current.filmActors[i]];
+                    if (!coStar.equals(acteurImdb) && !changes.containsKey(new Link(coStar, film))) {
+                        shared.computeIfAbsent(coStar, key -> new TreeSet<>()).add(film);
+                    }
+                }
+            }
+            for (String coStar : addedActorsByFilm.getOrDefault(film, List.of())) {
+                if (!coStar.equals(acteurImdb)) {
+                    shared.computeIfAbsent(coStar, key -> new TreeSet<>()).add(film);
+                }
+            }
+        }
+        return shared;
+    }
+
+    private record Link(String acteurId, String filmId) {
+    }
+
+    private static final class Snapshot {
+        // Sorted IMDb IDs; the index of an ID is its interned int
+        final String[] actorIds;
+        final String[] filmIds;
+        final int[] actorOffsets;
+        final int[] actorFilms;
+        final int[] filmOffsets;
+        final int[] filmActors;
+
+        Snapshot(String[] actorIds, String[] filmIds, int[] actorOffsets, int[] actorFilms, int[] filmOffsets, int[] filmActors) {
+            this.actorIds = actorIds;
+            this.filmIds = filmIds;
+            this.actorOffsets = actorOffsets;
+            this.actorFilms = actorFilms;
+            this.filmOffsets = filmOffsets;
+            this.filmActors = filmActors;
+        }
+
+        int actor(String imdb) {
+            return Arrays.binarySearch(actorIds, imdb);
+        }
+
+        int film(String imdb) {
+            return Arrays.binarySearch(filmIds, imdb);
+        }
+    }
+
+    /**
+     * Interns the IMDb IDs of the links as they are read, then lays the deduplicated links out in
+     * compressed sparse rows.
+     */
+    private static final class Builder {
+        private final Map<String, Integer> actors = new HashMap<>();
+        private final Map<String, Integer> films = new HashMap<>();
+        private long[] links = new long[1024];
+        private int size;
+
+        void add(String acteurId, String filmId) {
+            if (acteurId == null || filmId == null) {
+                return;
+            }
+            int actor = actors.computeIfAbsent(acteurId, key -> actors.size());
+            int film = films.computeIfAbsent(filmId, key -> films.size());
+            if (size == links.length) {
+                links = Arrays.copyOf(links, size * 2);
+            }
+            links[size++] = (long) actor << 32 | film;
+        }
+
+        Snapshot build() {
+            String[] actorIds = sortedKeys(actors);
+            String[] filmIds = sortedKeys(films);
+            int[] actorRank = ranks(actors, actorIds);
+            int[] filmRank = ranks(films, filmIds);
+
+            // Renumber the links with the sorted ranks, then sort them by actor and film and drop duplicates
+            long[] ranked = new long[size];
+            for (int i = 0; i < size; i++) {
+                ranked[i] = (long) actorRank[(int) (links[i] >>> 32)] << 32 | filmRank[(int) links[i]];
+            }
+            Arrays.sort(ranked);
+            int distinct = 0;
+            for (int i = 0; i < ranked.length; i++) {
+                if (i == 0 || ranked[i] != ranked[i - 1]) {
+                    ranked[distinct++] = ranked[i];
+                }
+            }
+
+            int[] actorOffsets = new int[actorIds.length + 1];
+            int[] actorFilms = new int[distinct];
+            int[] filmOffsets = new int[filmIds.length + 1];
+            for (int i = 0; i < distinct; i++) {
+                actorOffsets[(int) (ranked[i] >>> 32) + 1]++;
+                actorFilms[i] = (int) ranked[i];
+                filmOffsets[(int) ranked[i] + 1]++;
+            }
+            for (int a = 0; a < actorIds.length; a++) {
+                actorOffsets[a + 1] += actorOffsets[a];
+            }
+            for (int f = 0; f < filmIds.length; f++) {
+                filmOffsets[f + 1] += filmOffsets[f];
+            }
+            // Links are in actor order, so the actors of each film come out sorted
+            int[] filmActors = new int[distinct];
+            int[] next = Arrays.copyOf(filmOffsets, filmIds.length);
+            for (int i = 0; i < distinct; i++) {
+                filmActors[next[(int) ranked[i]]++] = (int) (ranked[i] >>> 32);
+            }
+            return new Snapshot(actorIds, filmIds, actorOffsets, actorFilms, filmOffsets, filmActors);
+        }
+
+        private static String[] sortedKeys(Map<String, Integer> ids) {
+            String[] keys = ids.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            return keys;
+        }
+
+        // Maps each insertion-order int to the rank of its ID in the sorted array
+        private static int[] ranks(Map<String, Integer> ids, String[] sorted) {
+            int[] rank = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                rank[ids.get(sorted[i])] = i;
+            }
+            return rank;
+        }
+    }
+}
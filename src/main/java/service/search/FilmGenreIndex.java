@@ -0,0 +1,158 @@
+package service.search;
+
+import persistence.repository.IFilmRepository;
+import service.FilmChangedEvent;
+import utilities.database.DataImportCompletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One {@link BitSet} per genre, with the bit of each film of the genre set at the position of the
+ * film id. Multi-genre filters are answered by intersecting or joining the bitsets instead of
+ * matching the comma-separated {@code Film.genres} column of every film.
+ * <p>
+ * The index is built once the data import has finished and updated on every film written through
+ * the API, once its transaction has committed. Until then {@link #match(List, boolean)} returns null and callers filter in the database.
+ */
+@Component
+public class FilmGenreIndex {
+
+    private static final int BUILD_BATCH_SIZE = 50_000;
+
+    @Autowired
+    private IFilmRepository filmRepository;
+
+    // Lowercase genre name -> ids of its films; null until built
+    private Map<String, BitSet> films;
+    // Genres of the films written while a rebuild reads the table (null for a deleted film), replayed
+    // on the rebuilt index before it is swapped in; null when no rebuild is running
+    private Map<Integer, String> changedDuringRebuild;
+
+    public synchronized boolean isReady() {
+        return films != null;
+    }
+
+    @EventListener
+    public void onDataImportCompleted(DataImportCompletedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onFilmChanged(FilmChangedEvent event) {
+        if (event.filmId() == null) {
+            return;
+        }
+        if (event.filmId() > Integer.MAX_VALUE) {
+            // Cannot be indexed: filters go back to the database, and a running rebuild is discarded
+            films = null;
+            changedDuringRebuild = null;
+            return;
+        }
+        int id = event.filmId().intValue();
+        String genres = event.isDeletion() ? null : event.film().getGenres();
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.put(id, genres);
+        }
+        if (films != null) {
+            replace(films, id, genres);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the Film table. The previous index keeps serving queries meanwhile, and
+     * the films written during the rebuild are applied to the new index before it replaces it.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new HashMap<>();
+        }
+        Map<String, BitSet> built = new HashMap<>();
+        try {
+            long lastId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = filmRepository.findGenresAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    if (lastId > Integer.MAX_VALUE) {
+                        throw new IllegalStateException("Film id " + lastId + " does not fit in the genre index");
+                    }
+                    add(built, (int) lastId, (String) row[1]);
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            System.err.println("Film genre index could not be built: " + e.getMessage());
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            if (changedDuringRebuild == null) {
+                System.err.println("Film genre index rebuild discarded: a film id does not fit in the index");
+                return;
+            }
+            changedDuringRebuild.forEach((id, genres) -> replace(built, id, genres));
+            changedDuringRebuild = null;
+            films = built;
+        }
+        System.out.println("Film genre index built: " + built.size() + " genres in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * @param genreNames the genres, matched case-insensitively
+     * @param all        true to require every genre, false to require any of them
+     * @return a new bitset of the ids of the matching films, or null if the index is not built yet
+     */
+    public synchronized BitSet match(List<String> genreNames, boolean all) {
+        if (films == null) {
+            return null;
+        }
+        BitSet result = null;
+        for (String genreName : genreNames) {
+            BitSet genre = films.getOrDefault(normalize(genreName), new BitSet());
+            if (result == null) {
+                result = (BitSet) genre.clone();
+            } else if (all) {
+                result.and(genre);
+            } else {
+                result.or(genre);
+            }
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    // Sets the genres of a film, removing it from the genres it no longer has
+    private static void replace(Map<String, BitSet> index, int id, String genres) {
+        for (BitSet genre : index.values()) {
+            genre.clear(id);
+        }
+        add(index, id, genres);
+    }
+
+    private static void add(Map<String, BitSet> index, int id, String genres) {
+        if (genres == null) {
+            return;
+        }
+        for (String genreName : genres.split(",")) {
+            if (!genreName.isBlank()) {
+                index.computeIfAbsent(normalize(genreName), key -> new BitSet()).set(id);
+            }
+        }
+    }
+
+    private static String normalize(String genreName) {
+        return genreName.trim().toLowerCase(Locale.ROOT);
+    }
+}
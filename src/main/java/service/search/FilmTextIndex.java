@@ -0,0 +1,389 @@
+package service.search;
+
+import entities.business.Film.Film;
+import persistence.repository.IFilmRepository;
+import service.FilmChangedEvent;
+import utilities.database.DataImportCompletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory inverted index over the name, filming locations and summary of every film.
+ * <p>
+ * Each field maps its normalized tokens (see {@link TextNormalizer}) to the compressed list of the
+ * ids of the films containing them, so a search only reads the posting lists of the query terms
+ * instead of scanning the Film table with {@code LIKE '%...%'}. The index is built once the data
+ * import has finished. Films written through the API afterwards, including while the index is being
+ * built, are kept in a small overlay that takes precedence over the built index until the next
+ * rebuild. They are only applied once their transaction has committed.
+ * <p>
+ * Until the index is built the query methods return null and callers fall back to the database.
+ */
+@Component
+public class FilmTextIndex {
+
+    static final int NOM = 0;
+    static final int LIEU_TOUR = 1;
+    static final int RESUME = 2;
+
+    // Matches in the name rank above matches in the other fields
+    private static final double[] FIELD_WEIGHTS = {3.0, 1.0, 1.0};
+    private static final int BUILD_BATCH_SIZE = 10_000;
+    private static final int MAX_PENDING_CHANGES = 10_000;
+
+    @Autowired
+    private IFilmRepository filmRepository;
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    private volatile Snapshot snapshot;
+    // Set while rebuild() reads the table, so that the films written meanwhile go to the overlay
+    private volatile boolean building;
+
+    // Films written since the snapshot was built, by id; DELETED for deleted films
+    private final Map<Integer, Document> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @EventListener
+    public void onDataImportCompleted(DataImportCompletedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilmChanged(FilmChangedEvent event) {
+        if ((snapshot == null && !building) || event.filmId() == null) {
+            return;
+        }
+        if (event.filmId() > Integer.MAX_VALUE) {
+            // Cannot be indexed: searches go back to the database
+            snapshot = null;
+            return;
+        }
+        pending.put(event.filmId().intValue(), event.isDeletion() ? Document.DELETED : Document.of(event.film()));
+        if (pending.size() > MAX_PENDING_CHANGES) {
+            rebuildInBackground();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the Film table. The previous index keeps serving searches meanwhile.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        Map<Integer, Document> applied = new HashMap<>(pending);
+        try {
+            Builder builder = new Builder();
+            long lastId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = filmRepository.findSearchableTextAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    if (lastId > Integer.MAX_VALUE) {
+                        throw new IllegalStateException("Film id " + lastId + " does not fit in the text index");
+                    }
+                    builder.add((int) lastId, (String) row[1], (String) row[2], (String) row[3]);
+                }
+            } while (rows.size() == BUILD_BATCH_SIZE);
+            snapshot = builder.build();
+            // Changes made during the rebuild stay in the overlay, the others are now in the snapshot
+            applied.forEach(pending::remove);
+            System.out.println("Film text index built: " + snapshot.documentCount + " films in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (RuntimeException e) {
+            System.err.println("Film text index could not be built: " + e.getMessage());
+        } finally {
+            building = false;
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    /**
+     * Finds the films whose name has, for each word of the query, a word starting with it.
+     *
+     * @param query the searched name
+     * @return the ids of the matching films in id order, or null if the index is not built yet
+     */
+    public List<Long> findByName(String query) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        int[] candidates = null;
+        for (String token : tokens) {
+            int[] ids = current.fields[NOM].matching(token, true);
+            candidates = candidates == null ? ids : PostingList.intersect(candidates, ids);
+        }
+
+        List<Long> result = new ArrayList<>(candidates.length);
+        for (int id : candidates) {
+            if (!pending.containsKey(id)) {
+                result.add((long) id);
+            }
+        }
+        for (Map.Entry<Integer, Document> entry : pending.entrySet()) {
+            Document document = entry.getValue();
+            if (document != Document.DELETED && tokens.stream().allMatch(token -> document.contains(NOM, token, true))) {
+                result.add((long) entry.getKey());
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+
+    /**
+     * Ranked full-text search over the name, filming locations and summary. Every word of the query
+     * must appear in one of the fields; the last one may be the start of a word. Films are scored by
+     * the rarity of the matched words, weighted by the field they were found in.
+     *
+     * @param query the searched text
+     * @param limit the maximum number of results
+     * @return the ids of the best matching films, best first, or null if the index is not built yet
+     */
+    public List<Long> search(String query, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokenize(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        int[][][] matches = new int[tokens.size()][FIELD_WEIGHTS.length][];
+        double[][] weights = new double[tokens.size()][FIELD_WEIGHTS.length];
+        int[] candidates = null;
+        for (int t = 0; t < tokens.size(); t++) {
+            boolean prefix = t == tokens.size() - 1;
+            for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                matches[t][field] = current.fields[field].matching(tokens.get(t), prefix);
+                double idf = Math.log(1.0 + (double) current.documentCount / (1 + matches[t][field].length));
+                weights[t][field] = FIELD_WEIGHTS[field] * idf;
+            }
+            int[] ids = PostingList.union(matches[t]);
+            candidates = candidates == null ? ids : PostingList.intersect(candidates, ids);
+        }
+
+        double[] scores = new double[candidates.length];
+        for (int t = 0; t < tokens.size(); t++) {
+            for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                addScore(candidates, matches[t][field], weights[t][field], scores);
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int i = 0; i < candidates.length; i++) {
+            if (!pending.containsKey(candidates[i])) {
+                hits.add(new Hit(candidates[i], scores[i]));
+            }
+        }
+        for (Map.Entry<Integer, Document> entry : pending.entrySet()) {
+            Document document = entry.getValue();
+            if (document == Document.DELETED) {
+                continue;
+            }
+            double score = 0;
+            boolean matchesAll = true;
+            for (int t = 0; t < tokens.size() && matchesAll; t++) {
+                boolean prefix = t == tokens.size() - 1;
+                boolean found = false;
+                for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                    if (document.contains(field, tokens.get(t), prefix)) {
+                        score += weights[t][field];
+                        found = true;
+                    }
+                }
+                matchesAll = found;
+            }
+            if (matchesAll) {
+                hits.add(new Hit(entry.getKey(), score));
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingInt(Hit::id));
+        return hits.stream().limit(limit).map(hit -> (long) hit.id()).toList();
+    }
+
+    // Adds the weight to the score of every candidate present in the sorted ids
+    private static void addScore(int[] candidates, int[] ids, double weight, double[] scores) {
+        int i = 0;
+        int j = 0;
+        while (i < candidates.length && j < ids.length) {
+            if (candidates[i] < ids[j]) {
+                i++;
+            } else if (candidates[i] > ids[j]) {
+                j++;
+            } else {
+                scores[i++] += weight;
+                j++;
+            }
+        }
+    }
+
+    private record Hit(int id, double score) {
+    }
+
+    private static final class Snapshot {
+        final FieldIndex[] fields;
+        final int documentCount;
+
+        Snapshot(FieldIndex[] fields, int documentCount) {
+            this.fields = fields;
+            this.documentCount = documentCount;
+        }
+    }
+
+    /**
+     * Sorted term dictionary of one field with the posting list of each term.
+     */
+    private static final class FieldIndex {
+        final String[] terms;
+        final PostingList[] postings;
+
+        FieldIndex(String[] terms, PostingList[] postings) {
+            this.terms = terms;
+            this.postings = postings;
+        }
+
+        /**
+         * @return the sorted ids of the films containing the token, or a word starting with it
+         */
+        int[] matching(String token, boolean prefix) {
+            int index = Arrays.binarySearch(terms, token);
+            if (!prefix) {
+                return index >= 0 ? postings[index].toArray() : new int[0];
+            }
+            int from = index >= 0 ? index : -index - 1;
+            List<int[]> lists = new ArrayList<>();
+            for (int i = from; i < terms.length && terms[i].startsWith(token); i++) {
+                lists.add(postings[i].toArray());
+            }
+            return lists.isEmpty() ? new int[0] : PostingList.union(lists.toArray(new int[0][]));
+        }
+    }
+
+    /**
+     * Tokens of one film written since the last build, one sorted array per field.
+     */
+    private static final class Document {
+        static final Document DELETED = new Document(new String[0][]);
+
+        final String[][] tokens;
+
+        private Document(String[][] tokens) {
+            this.tokens = tokens;
+        }
+
+        static Document of(Film film) {
+            return new Document(new String[][]{
+                    distinctSorted(film.getNom()),
+                    distinctSorted(film.getLieuTour()),
+                    distinctSorted(film.getResume())
+            });
+        }
+
+        boolean contains(int field, String token, boolean prefix) {
+            String[] fieldTokens = tokens[field];
+            int index = Arrays.binarySearch(fieldTokens, token);
+            if (index >= 0) {
+                return true;
+            }
+            int next = -index - 1;
+            return prefix && next < fieldTokens.length && fieldTokens[next].startsWith(token);
+        }
+
+        private static String[] distinctSorted(String text) {
+            return TextNormalizer.tokenize(text).stream().distinct().sorted().toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Accumulates the posting lists of each field; films must be added in increasing id order.
+     */
+    private static final class Builder {
+        private final List<Map<String, IdList>> fields = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        private int documentCount;
+
+        void add(int id, String nom, String lieuTour, String resume) {
+            addField(fields.get(NOM), id, nom);
+            addField(fields.get(LIEU_TOUR), id, lieuTour);
+            addField(fields.get(RESUME), id, resume);
+            documentCount++;
+        }
+
+        private static void addField(Map<String, IdList> field, int id, String text) {
+            for (String token : TextNormalizer.tokenize(text)) {
+                field.computeIfAbsent(token, key -> new IdList()).add(id);
+            }
+        }
+
+        Snapshot build() {
+            FieldIndex[] built = new FieldIndex[fields.size()];
+            for (int i = 0; i < built.length; i++) {
+                TreeMap<String, IdList> sorted = new TreeMap<>(fields.get(i));
+                String[] terms = sorted.keySet().toArray(new String[0]);
+                PostingList[] postings = new PostingList[terms.length];
+                int t = 0;
+                for (IdList ids : sorted.values()) {
+                    postings[t++] = PostingList.of(ids.ids, ids.size);
+                }
+                built[i] = new FieldIndex(terms, postings);
+            }
+            return new Snapshot(built, documentCount);
+        }
+    }
+
+    private static final class IdList {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            // A token repeated in the same film is only recorded once
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
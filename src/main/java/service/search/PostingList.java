@@ -0,0 +1,111 @@
+package service.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of film ids containing a term. The ids are stored as variable-length encoded gaps
+ * between consecutive ids, which takes one or two bytes per entry for dense terms instead of the
+ * four of an {@code int[]}.
+ */
+final class PostingList {
+
+    private final byte[] data;
+    private final int size;
+
+    private PostingList(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * @param ids   strictly increasing, non-negative ids
+     * @param count the number of ids to take from the array
+     */
+    static PostingList of(int[] ids, int count) {
+        byte[] buffer = new byte[count * 5];
+        int position = 0;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int gap = ids[i] - previous;
+            previous = ids[i];
+            while ((gap & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            buffer[position++] = (byte) gap;
+        }
+        return new PostingList(Arrays.copyOf(buffer, position), count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        int[] ids = new int[size];
+        int position = 0;
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += gap;
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    /**
+     * @return the sorted, duplicate-free union of the given sorted id arrays
+     */
+    static int[] union(int[][] lists) {
+        if (lists.length == 1) {
+            return lists[0];
+        }
+        int total = 0;
+        for (int[] list : lists) {
+            total += list.length;
+        }
+        int[] all = new int[total];
+        int position = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, all, position, list.length);
+            position += list.length;
+        }
+        Arrays.sort(all);
+        int count = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (count == 0 || all[count - 1] != all[i]) {
+                all[count++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, count);
+    }
+
+    /**
+     * @return the ids present in both sorted arrays
+     */
+    static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,55 @@
+package service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into search tokens: accents are removed, letters are lowercased and every run of
+ * letters or digits becomes one token, so "Amélie" and "amelie" match the same entries.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * @param text the text to tokenize, may be null
+     * @return the tokens of the text in order, with duplicates
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * @param text        the text to search, may be null
+     * @param queryTokens the tokens of the query, see {@link #tokenize(String)}
+     * @return true if, for each query token, the text has a token starting with it
+     */
+    public static boolean startsWords(String text, List<String> queryTokens) {
+        List<String> tokens = tokenize(text);
+        return queryTokens.stream().allMatch(queryToken -> tokens.stream().anyMatch(token -> token.startsWith(queryToken)));
+    }
+}
@@ -1,20 +1,16 @@
 package utilities.csvextractors;
 
-import web.model.dto.ActeurDTO;
-import web.model.dto.PersonneDTO;
+import entities.business.personne.Acteur;
+import entities.business.personne.Personne;
 import persistence.repository.IActeurRepository;
 import persistence.repository.IPersonneRepository;
-import service.ActeurService;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import utilities.database.ChunkedPersistence;
+import utilities.database.RowFingerprintStore;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 @Component
@@ -24,91 +20,107 @@ public class ActorExtractor {
     private IActeurRepository acteurRepository;
 
     @Autowired
-    private ActeurService acteurService;
+    private IPersonneRepository personneRepository;
 
     @Autowired
-    private IPersonneRepository personneRepository;
+    private ChunkedPersistence chunkedPersistence;
+
+    @Autowired
+    private RowFingerprintStore fingerprintStore;
 
-    @Transactional
     public void extractActorsFromCSV(String filePath) {
-        try (CSVReader reader = new CSVReaderBuilder(new FileReader(filePath))
-                .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
-                .build()) {
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath);
+             ChunkedPersistence.ChunkedSession session = chunkedPersistence.open(filePath, reader)) {
 
             // Read the header row
-            reader.readNext();
+            reader.skipHeader();
 
-            String[] line;
-            while ((line = reader.readNext()) != null) {
+            // Content hashes of the previous import, only loaded in incremental mode
+            RowFingerprintStore.Fingerprints fingerprints = fingerprintStore.load("acteurs");
+            if (fingerprints != null) {
+                session.onChunkEnd(fingerprints::flush);
+                session.onChunkRollback(fingerprints::discardPending);
+            }
+
+            MappedCsvReader.CsvRow line;
+            while ((line = reader.next()) != null) {
                 try {
                     // Parse CSV line
-                    String identite = line[1].isEmpty() || "N/A".equals(line[1]) ? null : line[1].trim();
-                    String dateNaissanceStr = line[2].isEmpty() || "N/A".equals(line[2]) ? null : line[2].trim();
-                    String lieuNaissance = line[3].isEmpty() || "N/A".equals(line[3]) ? null : line[3].trim();
-                    String imdbId = line[0].isEmpty() || "N/A".equals(line[0]) ? null : line[0].trim();
-                    String tailleStr = line[4].isEmpty() || "N/A".equals(line[4]) ? null : line[4].trim();
-                    String url = line[5].isEmpty() || "N/A".equals(line[5]) ? null : line[5].trim();
+                    String identite = line.isEmpty(1) || "N/A".contentEquals(line.field(1)) ? null : line.get(1).trim();
+                    String dateNaissanceStr = line.isEmpty(2) || "N/A".contentEquals(line.field(2)) ? null : line.get(2).trim();
+                    String lieuNaissance = line.isEmpty(3) || "N/A".contentEquals(line.field(3)) ? null : line.get(3).trim();
+                    String imdbId = line.isEmpty(0) || "N/A".contentEquals(line.field(0)) ? null : line.get(0).trim();
+                    String tailleStr = line.isEmpty(4) || "N/A".contentEquals(line.field(4)) ? null : line.get(4).trim();
+                    String url = line.isEmpty(5) || "N/A".contentEquals(line.field(5)) ? null : line.get(5).trim();
+
+                    long contentHash = line.contentHash();
+                    if (fingerprints != null && imdbId != null) {
+                        if (fingerprints.isUnchanged(imdbId, contentHash)) {
+                            continue;
+                        }
 
-                    // Check if the Personne already exists
-                    Optional<PersonneDTO> optionalPersonneDTO = personneRepository.findByIdentiteAndDateNaissance(identite, dateNaissanceStr)
-                            .map(PersonneDTO::fromEntity);
+                        // The row changed since the previous import: update the stored actor in place
+                        Optional<Acteur> existing = acteurRepository.findByImdb(imdbId);
+                        if (existing.isPresent()) {
+                            Acteur acteur = existing.get();
+                            acteur.setTaille(tailleStr);
+                            Personne personne = acteur.getPersonne();
+                            if (personne == null) {
+                                personne = new Personne();
+                                acteur.setPersonne(personne);
+                            }
+                            personne.setIdentite(identite);
+                            personne.setDateNaissance(dateNaissanceStr);
+                            personne.setLieuNaissance(lieuNaissance);
+                            personne.setUrl(url);
+                            fingerprints.record(imdbId, contentHash);
+                            continue;
+                        }
+                    }
 
-                    PersonneDTO personneDTO;
-                    if (optionalPersonneDTO.isPresent()) {
-                        // Personne exists, retrieve it
-                        personneDTO = optionalPersonneDTO.get();
-                    } else {
-                        // Personne does not exist, create a new PersonneDTO
-                        personneDTO = new PersonneDTO();
-                        personneDTO.setIdentite(identite);
-                        personneDTO.setDateNaissance(dateNaissanceStr);
-                        personneDTO.setLieuNaissance(lieuNaissance);
-                        personneDTO.setUrl(url);
-
-                        try {
-                            // Save the new Personne via the repository
-                            personneRepository.save(personneDTO.toEntity());  // Save as entity
-                        } catch (Exception e) {
-                            System.err.println("Error saving Personne: " + identite + " - " + e.getMessage());
-                            e.printStackTrace();
-                            continue; // Skip to the next line
+                    // Check if the Personne already exists
+                    Optional<Personne> optionalPersonne = personneRepository.findByIdentiteAndDateNaissance(identite, dateNaissanceStr);
+
+                    Personne personne;
+                    if (optionalPersonne.isPresent()) {
+                        personne = optionalPersonne.get();
+
+                        // Check if the Acteur already exists for this Personne
+                        if (acteurRepository.findByPersonne(personne).isPresent()) {
+                            System.out.println("Acteur with Personne ID " + personne.getId() + " already exists. Skipping...");
+                            // Recorded anyway, otherwise the row would be looked up again on every import
+                            if (fingerprints != null && imdbId != null) {
+                                fingerprints.record(imdbId, contentHash);
+                            }
+                            continue;
                         }
+                    } else {
+                        // Personne does not exist, it is created together with the Acteur
+                        personne = new Personne(identite, dateNaissanceStr, lieuNaissance, url);
                     }
 
-                    // Check if the Acteur already exists based on the Personne's ID
-                    Optional<ActeurDTO> optionalActeurDTO = acteurRepository.findByPersonne(personneDTO.toEntity())
-                            .map(ActeurDTO::fromEntity);
+                    Acteur acteur = new Acteur(imdbId, tailleStr);
+                    acteur.setPersonne(personne);
 
-                    if (optionalActeurDTO.isPresent()) {
-                        // Acteur already exists, skip it
-                        System.out.println("Acteur with Personne ID " + personneDTO.getId() + " already exists. Skipping...");
-                    } else {
-                        // Acteur does not exist, create a new ActeurDTO
-                        ActeurDTO acteurDTO = new ActeurDTO();
-                        acteurDTO.setPersonne(personneDTO);  // Associate the PersonneDTO with the ActeurDTO
-                        acteurDTO.setIdImdb(imdbId);
-                        acteurDTO.setTaille(tailleStr);
-
-                        try {
-                            // Save the new Acteur using the service
-                            acteurService.createActeur(acteurDTO);
-                        } catch (Exception e) {
-                            System.err.println("Error saving Acteur: " + identite + " - " + e.getMessage());
-                            e.printStackTrace();
-                        }
+                    // The Personne is persisted through the Acteur's cascade
+                    session.persist(acteur);
+                    if (fingerprints != null && imdbId != null) {
+                        fingerprints.record(imdbId, contentHash);
                     }
 
                 } catch (Exception e) {
-                    System.err.println("Error processing line for actor: " + (line.length > 1 ? line[1] : "Unknown") + " - " + e.getMessage());
+                    System.err.println("Error processing line for actor: " + (line.size() > 1 ? line.get(1) : "Unknown") + " - " + e.getMessage());
                     e.printStackTrace();
+                } finally {
+                    session.completeRow();
                 }
             }
+
+            if (fingerprints != null) {
+                System.out.println("Acteurs incremental import - unchanged rows skipped: " + fingerprints.getUnchanged());
+            }
         } catch (IOException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            e.printStackTrace();
-        } catch (CsvValidationException e) {
-            System.err.println("CSV validation error: " + e.getMessage());
-            e.printStackTrace();
+            throw new UncheckedIOException("Error reading the CSV file " + filePath, e);
         }
     }
 }
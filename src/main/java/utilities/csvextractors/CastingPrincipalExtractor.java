@@ -1,64 +1,62 @@
 package utilities.csvextractors;
 
 
-import entities.business.CastingPrincipal.CastingPrincipal;
-import persistence.repository.ICastingPrincipalRepository;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import utilities.database.ChunkedPersistence;
+import utilities.database.LocalInfileLoader;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Component
 public class CastingPrincipalExtractor {
 
+    // Pairs already stored are skipped by the uk_casting_film_acteur unique key
+    private static final String INSERT_CASTING_SQL = "INSERT IGNORE INTO casting_principal (film_id, acteur_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChunkedPersistence chunkedPersistence;
+
     @Autowired
-    private ICastingPrincipalRepository castingPrincipalRepository;
+    private LocalInfileLoader localInfileLoader;
 
-    @Transactional
     public void extractCastingPrincipalsFromCSV(String filePath) {
-        try (CSVReader reader = new CSVReaderBuilder(new FileReader(filePath))
-                .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
-                .build()) {
+        // Set-based fast path; the row by row import below is only used when it is disabled or fails
+        if (localInfileLoader.isEnabled()
+                && localInfileLoader.loadPairs(filePath, "casting_principal", "film_id", "acteur_id") >= 0) {
+            return;
+        }
+
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath);
+             ChunkedPersistence.ChunkedSession session = chunkedPersistence.open(filePath, reader)) {
 
             // Read the header row
-            reader.readNext();
+            reader.skipHeader();
 
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                String filmId = line[0].isEmpty() ? null : line[0].trim();
-                String acteurId = line[1].isEmpty() ? null : line[1].trim();
+            MappedCsvReader.CsvRow line;
+            while ((line = reader.next()) != null) {
+                String filmId = line.isEmpty(0) ? null : line.get(0).trim();
+                String acteurId = line.isEmpty(1) ? null : line.get(1).trim();
 
                 try {
-                    // Check if the CastingPrincipal already exists in the database
-                    if (castingPrincipalRepository.existsByFilmIdAndActeurId(filmId, acteurId)) {
+                    // An existing pair is ignored by the unique key instead of being looked up first
+                    if (jdbcTemplate.update(INSERT_CASTING_SQL, filmId, acteurId) == 0) {
                         System.out.println("CastingPrincipal already exists - Film ID: " + filmId + ", Actor ID: " + acteurId);
-                    } else {
-                        // Create a new CastingPrincipal entity
-                        CastingPrincipal castingPrincipal = new CastingPrincipal();
-                        castingPrincipal.setFilmId(filmId);
-                        castingPrincipal.setActeurId(acteurId);
-
-                        // Save the new CastingPrincipal to the database
-                        castingPrincipalRepository.save(castingPrincipal);
                     }
                 } catch (Exception e) {
                     System.err.println("Error processing line for CastingPrincipal - Film ID: " + filmId + ", Actor ID: " + acteurId + ": " + e.getMessage());
                     e.printStackTrace();
                 }
+                session.completeRow();
             }
 
         } catch (IOException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            e.printStackTrace();
-        } catch (CsvValidationException e) {
-            System.err.println("CSV validation error: " + e.getMessage());
-            e.printStackTrace();
+            throw new UncheckedIOException("Error reading the CSV file " + filePath, e);
         }
     }
 }
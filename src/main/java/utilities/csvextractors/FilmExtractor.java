@@ -4,22 +4,18 @@ package utilities.csvextractors;
 import entities.business.Film.Film;
 import entities.business.genre.Genre;
 import entities.business.pays.Pays;
+import persistence.repository.IFilmRepository;
 import service.FilmService;
 import service.GenreService;
 import service.PaysService;
-import web.model.dto.FilmDTO;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import utilities.database.ChunkedPersistence;
+import utilities.database.RowFingerprintStore;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 
 @Component
@@ -33,28 +29,57 @@ public class FilmExtractor {
     @Autowired
     private GenreService genreService;
 
-    @Transactional
+    @Autowired
+    private IFilmRepository filmRepository;
+
+    @Autowired
+    private ChunkedPersistence chunkedPersistence;
+
+    @Autowired
+    private RowFingerprintStore fingerprintStore;
+
     public void extractAndSaveFilmsFromCSV(String filePath) {
-        try (CSVReader reader = new CSVReaderBuilder(new FileReader(filePath))
-                .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
-                .build()) {
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath);
+             ChunkedPersistence.ChunkedSession session = chunkedPersistence.open(filePath, reader)) {
+
+            reader.skipHeader(); // Read the header row
+            MappedCsvReader.CsvRow line;
+
+            // Countries and genres are resolved from memory instead of one query per film and genre
+            ReferenceDataCache referenceData = ReferenceDataCache.warmUp(paysService, genreService);
+            session.onChunkCommit(referenceData::chunkCommitted);
+            session.onChunkRollback(referenceData::chunkRolledBack);
 
-            String[] header = reader.readNext(); // Read the header row
-            String[] line;
+            // Existing IMDb IDs are loaded once; the per-row existence query is only used if that fails
+            ImdbKeySet knownFilms = loadKnownFilms();
 
-            while ((line = reader.readNext()) != null) {
+            // Content hashes of the previous import, only loaded in incremental mode
+            RowFingerprintStore.Fingerprints fingerprints = fingerprintStore.load("films");
+            if (fingerprints != null) {
+                session.onChunkEnd(fingerprints::flush);
+                session.onChunkRollback(fingerprints::discardPending);
+            }
+
+            while ((line = reader.next()) != null) {
                 try {
                     // Parse and create a Film instance from the CSV data
-                    String imdb = line[0].isEmpty() ? "N/A" : line[0].trim();
-                    String nom = line[1].isEmpty() ? "N/A" : line[1].trim();
-                    String annee = line[2].isEmpty() ? "N/A" : line[2].trim();
-                    String rating = line[3].isEmpty() ? "N/A" : line[3].trim();
-                    String url = line[4].isEmpty() ? "N/A" : line[4].trim();
-                    String lieuTour = line[5].isEmpty() ? "N/A" : line[5].trim();
-                    String genre = line[6].isEmpty() ? "N/A" : line[6].trim();
-                    String langue = line[7].isEmpty() ? "N/A" : line[7].trim();
-                    String resume = line[8].isEmpty() ? "N/A" : line[8].trim();
-                    String paysName = line[9].isEmpty() ? "N/A" : line[9].trim();
+                    String imdb = line.isEmpty(0) ? "N/A" : line.get(0).trim();
+
+                    // In incremental mode, rows identical to the previous import are skipped right away
+                    long contentHash = line.contentHash();
+                    if (fingerprints != null && fingerprints.isUnchanged(imdb, contentHash)) {
+                        continue;
+                    }
+
+                    String nom = line.isEmpty(1) ? "N/A" : line.get(1).trim();
+                    String annee = line.isEmpty(2) ? "N/A" : line.get(2).trim();
+                    String rating = line.isEmpty(3) ? "N/A" : line.get(3).trim();
+                    String url = line.isEmpty(4) ? "N/A" : line.get(4).trim();
+                    String lieuTour = line.isEmpty(5) ? "N/A" : line.get(5).trim();
+                    String genre = line.isEmpty(6) ? "N/A" : line.get(6).trim();
+                    String langue = line.isEmpty(7) ? "N/A" : line.get(7).trim();
+                    String resume = line.isEmpty(8) ? "N/A" : line.get(8).trim();
+                    String paysName = line.isEmpty(9) ? "N/A" : line.get(9).trim();
 
                     // Check the length of the resume to avoid Data Truncation errors
                     if (resume.length() > 10000) {
@@ -63,23 +88,31 @@ public class FilmExtractor {
                     }
 
                     // Validate if the film already exists by IMDb ID
-                    Optional<FilmDTO> existingFilmOpt = filmService.findFilmByImdb(imdb);
+                    boolean exists = knownFilms != null ? knownFilms.contains(imdb) : filmService.existsByImdb(imdb);
 
-                    if (!existingFilmOpt.isPresent()) {
+                    Film film = null;
+                    if (!exists) {
                         // If the film does not exist, create a new one
+                        film = new Film();
+                        film.setImdb(imdb);
+                    } else if (fingerprints != null) {
+                        // The row changed since the previous import: the stored film is updated in place
+                        film = filmRepository.findByImdb(imdb).orElse(null);
+                    } else {
+                        // Optionally handle duplicates (e.g., update existing records, log a warning, etc.)
+                        System.out.println("Film with IMDb ID " + imdb + " already exists. Skipping...");
+                    }
 
+                    if (film != null) {
                         // Create or find a Pays instance
-                        Pays pays = paysService.findOrCreatePays(paysName);
+                        Pays pays = referenceData.findOrCreatePays(paysName);
 
                         // Create or find Genre instances
                         Set<Genre> genres = new HashSet<>();
                         for (String genreName : genre.split(",")) {
-                            genres.add(genreService.findOrCreateGenre(genreName.trim()));
+                            genres.add(referenceData.findOrCreateGenre(genreName.trim()));
                         }
 
-                        // Create a new Film instance
-                        Film film = new Film();
-                        film.setImdb(imdb);
                         film.setNom(nom);
                         film.setAnnee(annee);
                         film.setRating(rating);
@@ -90,25 +123,40 @@ public class FilmExtractor {
                         film.setPays(pays);
                         film.setGenres(genre);// Set the Pays object correctly
 
-                        // Save the new film to the database
-                        filmService.save(film);
-
-                    } else {
-                        // Optionally handle duplicates (e.g., update existing records, log a warning, etc.)
-                        System.out.println("Film with IMDb ID " + imdb + " already exists. Skipping...");
+                        if (film.getId() == null) {
+                            // Persist the new film; it is flushed with the rest of its chunk
+                            session.persist(film);
+                            if (knownFilms != null) {
+                                knownFilms.add(imdb);
+                            }
+                        }
+                        if (fingerprints != null) {
+                            fingerprints.record(imdb, contentHash);
+                        }
                     }
 
                 } catch (Exception e) {
-                    System.err.println("Error processing line for film: " + (line.length > 1 ? line[1] : "Unknown") + " - " + e.getMessage());
+                    System.err.println("Error processing line for film: " + (line.size() > 1 ? line.get(1) : "Unknown") + " - " + e.getMessage());
                     e.printStackTrace();  // Print full stack trace for debugging
+                } finally {
+                    session.completeRow();
                 }
             }
+
+            if (fingerprints != null) {
+                System.out.println("Films incremental import - unchanged rows skipped: " + fingerprints.getUnchanged());
+            }
         } catch (IOException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            e.printStackTrace();
-        } catch (CsvValidationException e) {
-            System.err.println("CSV validation error: " + e.getMessage());
-            e.printStackTrace();
+            throw new UncheckedIOException("Error reading the CSV file " + filePath, e);
+        }
+    }
+
+    private ImdbKeySet loadKnownFilms() {
+        try {
+            return ImdbKeySet.of(filmService.findAllImdb());
+        } catch (Exception e) {
+            System.err.println("Could not preload film IMDb IDs, checking each row against the database - " + e.getMessage());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,13 @@
 package utilities.csvextractors;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import utilities.database.ChunkedPersistence;
+import utilities.database.LocalInfileLoader;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Component
 public class FilmRealisateurExtractor {
@@ -18,29 +15,42 @@ public class FilmRealisateurExtractor {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    @Transactional
+    @Autowired
+    private ChunkedPersistence chunkedPersistence;
+
+    @Autowired
+    private LocalInfileLoader localInfileLoader;
+
     public void extractAndSaveFilmRealisateurFromCSV(String filePath) {
-        try (CSVReader reader = new CSVReaderBuilder(new FileReader(filePath))
-                .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
-                .build()) {
+        // Set-based fast path; the row by row import below is only used when it is disabled or fails
+        if (localInfileLoader.isEnabled()
+                && localInfileLoader.loadPairs(filePath, "film_realisateur", "film_imdb", "realisateur_id_imdb") >= 0) {
+            return;
+        }
+
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath);
+             ChunkedPersistence.ChunkedSession session = chunkedPersistence.open(filePath, reader)) {
+
+            // Read the header row
+            reader.skipHeader();
 
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                String realisateurId = line[1].trim();
-                String filmId = line[0].trim();
+            MappedCsvReader.CsvRow line;
+            while ((line = reader.next()) != null) {
+                String realisateurId = line.get(1).trim();
+                String filmId = line.get(0).trim();
 
                 try {
-                    // Insert into film_realisateur table
-                    String sql = "INSERT INTO film_realisateur (realisateur_id_imdb, film_imdb) VALUES (?, ?)";
+                    // Insert into film_realisateur table; pairs already stored are skipped by uk_film_realisateur
+                    String sql = "INSERT IGNORE INTO film_realisateur (realisateur_id_imdb, film_imdb) VALUES (?, ?)";
                     jdbcTemplate.update(sql, realisateurId, filmId);
                 } catch (Exception e) {
                     System.err.println("Error processing line for film_realisateur - Realisateur ID: " + realisateurId + ", Film ID: " + filmId + ": " + e.getMessage());
                     e.printStackTrace();
                 }
+                session.completeRow();
             }
-        } catch (IOException | CsvValidationException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            e.printStackTrace();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading the CSV file " + filePath, e);
         }
     }
 }
\ No newline at end of file
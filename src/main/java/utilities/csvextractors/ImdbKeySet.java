@@ -0,0 +1,147 @@
+package utilities.csvextractors;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compact set of IMDb identifiers used by the extractors for in-memory duplicate detection.
+ * <p>
+ * Identifiers of the usual IMDb shape (two lowercase letters followed by up to twelve digits, e.g.
+ * {@code tt0014137} or {@code nm0000481}) are packed into a single {@code long} and stored in an
+ * open-addressing table with linear probing, so a set of a few hundred thousand keys costs a few
+ * megabytes instead of one {@code String} and hash-map node per key. Any other value is kept in a
+ * regular {@link HashSet}.
+ */
+public class ImdbKeySet {
+
+    private static final int MAX_DIGITS = 12;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    // 0 marks an empty slot; every packed key is non-zero because the prefix is stored offset by one
+    private long[] table;
+    private int size;
+    private final Set<String> otherKeys = new HashSet<>();
+
+    public ImdbKeySet() {
+        this(16);
+    }
+
+    public ImdbKeySet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.table = new long[capacity];
+    }
+
+    public static ImdbKeySet of(Collection<String> keys) {
+        ImdbKeySet set = new ImdbKeySet(keys.size());
+        for (String key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    /**
+     * Adds a key to the set.
+     *
+     * @param key the IMDb identifier, ignored when null
+     * @return true if the key was not already present
+     */
+    public boolean add(String key) {
+        if (key == null) {
+            return false;
+        }
+        long packed = pack(key);
+        if (packed == 0) {
+            return otherKeys.add(key);
+        }
+        if (size + 1 > table.length * LOAD_FACTOR) {
+            resize();
+        }
+        if (insert(table, packed)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean contains(String key) {
+        if (key == null) {
+            return false;
+        }
+        long packed = pack(key);
+        if (packed == 0) {
+            return otherKeys.contains(key);
+        }
+        int mask = table.length - 1;
+        for (int slot = hash(packed) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (table[slot] == packed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size + otherKeys.size();
+    }
+
+    private void resize() {
+        long[] larger = new long[table.length << 1];
+        for (long packed : table) {
+            if (packed != 0) {
+                insert(larger, packed);
+            }
+        }
+        table = larger;
+    }
+
+    private static boolean insert(long[] target, long packed) {
+        int mask = target.length - 1;
+        int slot = hash(packed) & mask;
+        while (target[slot] != 0) {
+            if (target[slot] == packed) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = packed;
+        return true;
+    }
+
+    /**
+     * Packs a key of the form {@code [a-z]{2}[0-9]{1,12}} as prefix (10 bits), digit count (4 bits)
+     * and numeric value (40 bits). The digit count keeps leading zeros significant.
+     *
+     * @return the packed key, or 0 when the key does not have the expected shape
+     */
+    private static long pack(String key) {
+        int length = key.length();
+        int digits = length - 2;
+        if (digits < 1 || digits > MAX_DIGITS) {
+            return 0;
+        }
+        char first = key.charAt(0);
+        char second = key.charAt(1);
+        if (first < 'a' || first > 'z' || second < 'a' || second > 'z') {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 2; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        long prefix = (first - 'a') * 26L + (second - 'a') + 1;
+        return (prefix << 44) | ((long) digits << 40) | value;
+    }
+
+    private static int hash(long packed) {
+        long h = packed;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,381 @@
+package utilities.csvextractors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming reader for the {@code ;}-separated CSV files, built on a memory-mapped {@link FileChannel}.
+ * <p>
+ * Rows are located directly in the mapped bytes (quotes and line feeds are ASCII in every supported
+ * charset) and only the bytes of the current row are decoded, with an explicit charset, into buffers
+ * that are reused from one row to the next. {@link #next()} returns the same {@link CsvRow} instance
+ * every time; its fields are exposed as {@link CharSequence} views and only become {@code String}s
+ * when the caller asks for them. Quoted fields follow RFC 4180 ({@code ""} inside quotes is a quote).
+ */
+public class MappedCsvReader implements AutoCloseable {
+
+    // Files are mapped in windows so that files larger than 2 GB can be read as well
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final CharsetDecoder decoder;
+    private final char separator;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long rowStart;
+
+    private CharBuffer decoded = CharBuffer.allocate(1024);
+    private final CsvRow row = new CsvRow();
+
+    public MappedCsvReader(Path path, Charset charset, char separator) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.separator = separator;
+        mapWindow(0);
+    }
+
+    /**
+     * Opens a {@code ;}-separated file, decoding it as UTF-8 when it is valid UTF-8 and as
+     * windows-1252 otherwise (the encoding of the legacy acteurs and realisateurs exports).
+     *
+     * @param filePath the path of the CSV file
+     * @return the open reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static MappedCsvReader open(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        return new MappedCsvReader(path, detectCharset(path), ';');
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the reused row instance, or null at the end of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    public CsvRow next() throws IOException {
+        if (position >= fileSize) {
+            return null;
+        }
+        rowStart = position;
+        boolean inQuotes = false;
+        long end = -1;
+
+        while (end < 0) {
+            if (position >= fileSize) {
+                end = position;
+                break;
+            }
+            if (position - windowStart >= window.limit()) {
+                if (rowStart == windowStart) {
+                    throw new IOException("Row longer than the mapping window at offset " + rowStart);
+                }
+                // The row crosses the end of the current window: remap starting at the row
+                mapWindow(rowStart);
+            }
+            byte b = window.get((int) (position - windowStart));
+            position++;
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                end = position - 1;
+            }
+        }
+
+        long contentEnd = end;
+        if (contentEnd > rowStart && byteAt(contentEnd - 1) == '\r') {
+            contentEnd--;
+        }
+        decodeRow(rowStart, contentEnd);
+        row.parse(decoded, separator);
+        return row;
+    }
+
+    /**
+     * Skips the header row, unless the reader has already been moved past the start of the file
+     * with {@link #seek(long)}.
+     *
+     * @throws IOException if the file cannot be mapped
+     */
+    public void skipHeader() throws IOException {
+        if (position == 0) {
+            next();
+        }
+    }
+
+    /**
+     * @return the byte offset just after the last row returned by {@link #next()}
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Moves the reader to a byte offset, which must be the start of a row, typically a value
+     * previously returned by {@link #position()}.
+     *
+     * @param offset the offset of the next row to read
+     * @throws IOException if the offset is outside the file or the file cannot be mapped
+     */
+    public void seek(long offset) throws IOException {
+        if (offset < 0 || offset > fileSize) {
+            throw new IOException("Offset " + offset + " is outside " + path + " (" + fileSize + " bytes)");
+        }
+        if (offset < windowStart || offset > windowStart + window.limit()) {
+            mapWindow(Math.min(offset, Math.max(0, fileSize - 1)));
+        }
+        position = offset;
+    }
+
+    public boolean isAtEnd() {
+        return position >= fileSize;
+    }
+
+    public long size() {
+        return fileSize;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private byte byteAt(long offset) {
+        return window.get((int) (offset - windowStart));
+    }
+
+    private void mapWindow(long start) throws IOException {
+        long length = Math.min(WINDOW_SIZE, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+    }
+
+    private void decodeRow(long start, long end) {
+        ByteBuffer bytes = window.slice((int) (start - windowStart), (int) (end - start));
+        decoded.clear();
+        decoder.reset();
+        while (true) {
+            CoderResult result = decoder.decode(bytes, decoded, true);
+            if (result.isOverflow()) {
+                decoded = grow(decoded);
+                continue;
+            }
+            result = decoder.flush(decoded);
+            if (result.isOverflow()) {
+                decoded = grow(decoded);
+                continue;
+            }
+            break;
+        }
+        decoded.flip();
+    }
+
+    private static CharBuffer grow(CharBuffer buffer) {
+        CharBuffer larger = CharBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    static Charset detectCharset(Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            CharBuffer sink = CharBuffer.allocate(8192);
+            long size = fileChannel.size();
+            long offset = 0;
+            while (offset < size) {
+                long length = Math.min(WINDOW_SIZE, size - offset);
+                ByteBuffer bytes = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                boolean last = offset + length >= size;
+                while (true) {
+                    CoderResult result = utf8.decode(bytes, sink, last);
+                    if (result.isError()) {
+                        return WINDOWS_1252;
+                    }
+                    sink.clear();
+                    if (result.isUnderflow()) {
+                        break;
+                    }
+                }
+                // Bytes of a sequence cut by the window end are decoded again with the next window
+                offset += length - bytes.remaining();
+            }
+            return StandardCharsets.UTF_8;
+        } catch (CharacterCodingException e) {
+            return WINDOWS_1252;
+        }
+    }
+
+    /**
+     * A parsed row. The instance and its field views are reused by the reader, so values must be
+     * copied (for example with {@link #get(int)}) before the next call to {@link MappedCsvReader#next()}.
+     */
+    public static class CsvRow {
+
+        private char[] chars = new char[1024];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private FieldView[] views = new FieldView[0];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param index the zero-based field index
+         * @return a view on the unquoted field, valid until the next row is read
+         */
+        public CharSequence field(int index) {
+            checkIndex(index);
+            return views[index];
+        }
+
+        /**
+         * @param index the zero-based field index
+         * @return the unquoted field as a new String
+         */
+        public String get(int index) {
+            checkIndex(index);
+            return new String(chars, starts[index], ends[index] - starts[index]);
+        }
+
+        public boolean isEmpty(int index) {
+            checkIndex(index);
+            return starts[index] == ends[index];
+        }
+
+        /**
+         * Computes a 64-bit FNV-1a hash of the unquoted fields, without copying them. Field boundaries
+         * are part of the hash, so {@code a;bc} and {@code ab;c} hash differently.
+         *
+         * @return the content hash of the row
+         */
+        public long contentHash() {
+            long hash = 0xcbf29ce484222325L;
+            for (int field = 0; field < size; field++) {
+                for (int i = starts[field]; i < ends[field]; i++) {
+                    hash = (hash ^ chars[i]) * 0x100000001b3L;
+                }
+                hash = (hash ^ 0xffff) * 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Field " + index + " out of bounds for row of " + size + " fields");
+            }
+        }
+
+        // Splits the decoded row into fields, unquoting them into the reusable char array
+        private void parse(CharBuffer line, char separator) {
+            int length = line.remaining();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            size = 0;
+            int out = 0;
+            int fieldStart = 0;
+            boolean inQuotes = false;
+            int i = 0;
+            while (i < length) {
+                char c = line.get(i);
+                if (inQuotes) {
+                    if (c == '"') {
+                        if (i + 1 < length && line.get(i + 1) == '"') {
+                            chars[out++] = '"';
+                            i++;
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else {
+                        chars[out++] = c;
+                    }
+                } else if (c == '"') {
+                    inQuotes = true;
+                } else if (c == separator) {
+                    addField(fieldStart, out);
+                    fieldStart = out;
+                } else {
+                    chars[out++] = c;
+                }
+                i++;
+            }
+            addField(fieldStart, out);
+        }
+
+        private void addField(int start, int end) {
+            if (size == starts.length) {
+                starts = java.util.Arrays.copyOf(starts, size * 2);
+                ends = java.util.Arrays.copyOf(ends, size * 2);
+            }
+            if (size == views.length) {
+                FieldView[] grown = java.util.Arrays.copyOf(views, Math.max(16, size * 2));
+                for (int v = views.length; v < grown.length; v++) {
+                    grown[v] = new FieldView(v);
+                }
+                views = grown;
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        private class FieldView implements CharSequence {
+            private final int index;
+
+            private FieldView(int index) {
+                this.index = index;
+            }
+
+            @Override
+            public int length() {
+                return ends[index] - starts[index];
+            }
+
+            @Override
+            public char charAt(int offset) {
+                return chars[starts[index] + offset];
+            }
+
+            @Override
+            public CharSequence subSequence(int from, int to) {
+                return new String(chars, starts[index] + from, to - from);
+            }
+
+            @Override
+            public String toString() {
+                return new String(chars, starts[index], length());
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package utilities.csvextractors;
+
+import entities.business.genre.Genre;
+import entities.business.pays.Pays;
+import service.GenreService;
+import service.PaysService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Import-scoped name to entity cache for the Pays and Genre reference tables.
+ * <p>
+ * The cache is warmed with a single query per table when an import starts. Names that are not
+ * cached yet go through the services' find-or-create methods once and are then remembered, so each
+ * country and genre costs at most one lookup for the whole file.
+ * <p>
+ * Entries resolved through the services may have been created in the current chunk's transaction.
+ * They are evicted if that chunk is rolled back, since their ID then no longer exists, and kept once
+ * it is committed: see {@link #chunkRolledBack()} and {@link #chunkCommitted()}.
+ */
+public class ReferenceDataCache {
+
+    private final PaysService paysService;
+    private final GenreService genreService;
+
+    private final Map<String, Pays> paysByName = new HashMap<>();
+    private final Map<String, Genre> genresByName = new HashMap<>();
+    // Names resolved through the services since the last commit
+    private final List<String> paysInChunk = new ArrayList<>();
+    private final List<String> genresInChunk = new ArrayList<>();
+
+    private ReferenceDataCache(PaysService paysService, GenreService genreService) {
+        this.paysService = paysService;
+        this.genreService = genreService;
+    }
+
+    /**
+     * Creates a cache pre-loaded with every country and genre already stored in the database.
+     *
+     * @param paysService  the service used to load and create countries
+     * @param genreService the service used to load and create genres
+     * @return the warmed cache
+     */
+    public static ReferenceDataCache warmUp(PaysService paysService, GenreService genreService) {
+        ReferenceDataCache cache = new ReferenceDataCache(paysService, genreService);
+        for (Pays pays : paysService.findAll()) {
+            cache.paysByName.put(pays.getName(), pays);
+        }
+        for (Genre genre : genreService.findAllWithoutFilms()) {
+            cache.genresByName.put(genre.getName(), genre);
+        }
+        return cache;
+    }
+
+    public Pays findOrCreatePays(String paysName) {
+        Pays pays = paysByName.get(paysName);
+        if (pays == null) {
+            pays = paysService.findOrCreatePays(paysName);
+            paysByName.put(paysName, pays);
+            paysInChunk.add(paysName);
+        }
+        return pays;
+    }
+
+    public Genre findOrCreateGenre(String genreName) {
+        Genre genre = genresByName.get(genreName);
+        if (genre == null) {
+            genre = genreService.findOrCreateGenre(genreName);
+            genresByName.put(genreName, genre);
+            genresInChunk.add(genreName);
+        }
+        return genre;
+    }
+
+    /**
+     * Keeps the entries resolved during the chunk that has just been committed.
+     */
+    public void chunkCommitted() {
+        paysInChunk.clear();
+        genresInChunk.clear();
+    }
+
+    /**
+     * Evicts the entries resolved during the chunk that has just been rolled back, so that they are
+     * looked up (and created again if needed) instead of referencing an ID that was never committed.
+     */
+    public void chunkRolledBack() {
+        paysInChunk.forEach(paysByName::remove);
+        genresInChunk.forEach(genresByName::remove);
+        paysInChunk.clear();
+        genresInChunk.clear();
+    }
+}
@@ -1,27 +1,26 @@
 package utilities.csvextractors;
 
 
-import entities.business.role.Role;
 import persistence.repository.IActeurRepository;
 import persistence.repository.IFilmRepository;
-import persistence.repository.IRoleRepository;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import utilities.database.ChunkedPersistence;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class RoleExtractor {
 
-    @Autowired
-    private IRoleRepository roleRepository;
+    // Rows already stored are skipped by the unique keys of role and film_acteur (see DatabaseInitializer)
+    private static final String INSERT_ROLE_SQL = "INSERT IGNORE INTO role (role_name, film_id, acteur_id) VALUES (?, ?, ?)";
+    private static final String INSERT_FILM_ACTEUR_SQL = "INSERT IGNORE INTO film_acteur (acteur_id_imdb, film_imdb) VALUES (?, ?)";
 
     @Autowired
     private IFilmRepository filmRepository;
@@ -32,51 +31,160 @@ public class RoleExtractor {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
-    @Transactional
+    @Autowired
+    private ChunkedPersistence chunkedPersistence;
+
     public void extractRolesFromCSV(String filePath) {
-        try (CSVReader reader = new CSVReaderBuilder(new FileReader(filePath))
-                .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
-                .build()) {
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath);
+             ChunkedPersistence.ChunkedSession session = chunkedPersistence.open(filePath, reader)) {
 
             // Read the header row
-            reader.readNext();
+            reader.skipHeader();
 
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                String filmId = line[0].isEmpty() ? null : line[0].trim();
-                String acteurId = line[1].isEmpty() ? null : line[1].trim();
-                String roleName = line[2].isEmpty() ? null : line[2].trim();
+            MappedCsvReader.CsvRow line;
+            while ((line = reader.next()) != null) {
+                String filmId = line.isEmpty(0) ? null : line.get(0).trim();
+                String acteurId = line.isEmpty(1) ? null : line.get(1).trim();
+                String roleName = roleName(line);
 
                 try {
-                    // Check if the Role already exists in the database
-                    if (roleRepository.existsByFilmIdAndActeurIdAndRoleName(filmId, acteurId, roleName)) {
+                    // A role already stored is ignored by the unique key instead of being looked up first
+                    if (jdbcTemplate.update(INSERT_ROLE_SQL, roleName, filmId, acteurId) == 0) {
                         System.out.println("Role already exists - Film ID: " + filmId + ", Actor ID: " + acteurId + ", Role Name: " + roleName);
                     } else {
-                        // Create a new Role entity
-                        Role role = new Role();
-                        role.setRoleName(roleName);
-                        role.setFilmId(filmId);
-                        role.setActeurId(acteurId);
-
-                        // Save the new Role to the database
-                        roleRepository.save(role);
-
-                        // Insert into film_acteur table
-                        String sql = "INSERT INTO film_acteur (acteur_id_imdb, film_imdb) VALUES (?, ?)";
-                        jdbcTemplate.update(sql, acteurId, filmId);
+                        jdbcTemplate.update(INSERT_FILM_ACTEUR_SQL, acteurId, filmId);
                     }
                 } catch (Exception e) {
                     System.err.println("Error processing line for role - Film ID: " + filmId + ", Actor ID: " + acteurId + ", Role Name: " + roleName + ": " + e.getMessage());
                     e.printStackTrace();
                 }
+                session.completeRow();
             }
 
         } catch (IOException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            e.printStackTrace();
-        } catch (CsvValidationException e) {
-            System.err.println("CSV validation error: " + e.getMessage());
-            e.printStackTrace();
+            throw new UncheckedIOException("Error reading the CSV file " + filePath, e);
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #extractRolesFromCSV(String)}.
+     * <p>
+     * The rows are written through batched {@code INSERT IGNORE} statements, one batch per import
+     * chunk; the unique keys of {@code role} and {@code film_acteur} skip the rows already stored or
+     * repeated in the file, so nothing has to be looked up or kept in memory beforehand. Rows without
+     * a film or actor IMDb ID are skipped, since NULL columns would not be matched by the unique keys.
+     *
+     * @param filePath the path of the roles CSV file
+     */
+    public void extractRolesFromCSVBulk(String filePath) {
+        RoleBatches batches = new RoleBatches(chunkedPersistence.getChunkSize());
+        int skipped = 0;
+
+        try (MappedCsvReader reader = MappedCsvReader.open(filePath);
+             ChunkedPersistence.ChunkedSession session = chunkedPersistence.open(filePath, reader)) {
+
+            // Nothing left to read when the checkpoint says the file was already imported
+            if (reader.isAtEnd()) {
+                return;
+            }
+
+            // Each chunk's rows are sent as one JDBC batch right before the chunk is committed, and
+            // dropped with the chunk if it is rolled back
+            session.onChunkEnd(() -> batches.flush(jdbcTemplate));
+            session.onChunkCommit(batches::committed);
+            session.onChunkRollback(batches::rolledBack);
+
+            // Read the header row
+            reader.skipHeader();
+
+            MappedCsvReader.CsvRow line;
+            while ((line = reader.next()) != null) {
+                try {
+                    if (line.size() < 3 || line.isEmpty(0) || line.isEmpty(1)) {
+                        skipped++;
+                        continue;
+                    }
+                    batches.add(line.get(0).trim(), line.get(1).trim(), roleName(line));
+                } finally {
+                    session.completeRow();
+                }
+            }
+
+            System.out.println("Roles bulk import finished - committed: " + batches.committed + ", rolled back: "
+                    + batches.dropped + ", malformed rows skipped: " + skipped);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading the CSV file " + filePath, e);
+        }
+    }
+
+    // A missing character name is stored as an empty string: NULLs are distinct in the unique key of
+    // role, so the same row would be inserted again on every import
+    private static String roleName(MappedCsvReader.CsvRow line) {
+        return line.isEmpty(2) ? "" : line.get(2).trim();
+    }
+
+    /**
+     * Rows of the current chunk, sent as JDBC batches when it ends. An actor playing several characters
+     * in a film only needs one film_acteur row: within a chunk each pair is queued once whatever the
+     * order of the rows, and the pairs already stored by earlier chunks are skipped by the unique key.
+     */
+    private static final class RoleBatches {
+        private final List<Object[]> roles;
+        private final List<Object[]> filmActeurs;
+        private final Set<String> pairs = new HashSet<>();
+        // Rows queued since the last commit, lost if the chunk is rolled back
+        private int uncommitted;
+        private int committed;
+        private int dropped;
+
+        RoleBatches(int chunkSize) {
+            this.roles = new ArrayList<>(chunkSize);
+            this.filmActeurs = new ArrayList<>(chunkSize);
+        }
+
+        void add(String filmId, String acteurId, String roleName) {
+            roles.add(new Object[]{roleName, filmId, acteurId});
+            if (pairs.add(key(filmId, acteurId))) {
+                filmActeurs.add(new Object[]{acteurId, filmId});
+            }
+            uncommitted++;
+        }
+
+        // Both batches are kept until both are sent, so a failure drops them together with the chunk
+        void flush(JdbcTemplate jdbcTemplate) {
+            if (!roles.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, roles);
+            }
+            if (!filmActeurs.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_FILM_ACTEUR_SQL, filmActeurs);
+            }
+            clear();
+        }
+
+        void committed() {
+            committed += uncommitted;
+            uncommitted = 0;
+        }
+
+        void rolledBack() {
+            dropped += uncommitted;
+            uncommitted = 0;
+            clear();
+        }
+
+        private void clear() {
+            roles.clear();
+            filmActeurs.clear();
+            pairs.clear();
+        }
+    }
+
+    // Builds a composite in-memory key; null columns are kept distinct from empty strings
+    private static String key(String... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            builder.append(part == null ? "\u0001" : part).append('\u0000');
         }
+        return builder.toString();
     }
-}
\ No newline at end of file
+}
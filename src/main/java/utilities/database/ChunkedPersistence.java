@@ -0,0 +1,274 @@
+package utilities.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import utilities.csvextractors.MappedCsvReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chunked write path shared by the CSV extractors.
+ * <p>
+ * An import opens a {@link ChunkedSession} and reports every processed row to it. Every
+ * {@code imdb.import.chunk-size} rows the session flushes and clears the persistence context, so the
+ * number of managed entities (and the cost of dirty checking them) stays bounded by the chunk size
+ * instead of growing with the file. With {@code imdb.import.commit-per-chunk} enabled each chunk is
+ * also committed in its own transaction; otherwise the whole file is written in a single transaction.
+ * <p>
+ * Sessions opened on a {@link MappedCsvReader} also record a checkpoint (file hash, byte offset and
+ * rows committed) in the same transaction as each chunk. When {@code imdb.import.resume} is enabled, a
+ * later import of the unchanged file resumes after the last committed chunk, and a file that was
+ * imported completely is not read again. Once a chunk of a file has been rolled back the checkpoint
+ * stops advancing for the rest of that file, so the resumed import starts again at the first rolled
+ * back row instead of skipping it; the rows committed after it are read again.
+ */
+@Component
+public class ChunkedPersistence {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${imdb.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${imdb.import.commit-per-chunk:true}")
+    private boolean commitPerChunk;
+
+    @Value("${imdb.import.resume:true}")
+    private boolean resume;
+
+    @Autowired
+    private ImportCheckpointStore checkpointStore;
+
+    @Autowired
+    private ImportProgress importProgress;
+
+    /**
+     * Opens a session and starts its first transaction.
+     *
+     * @param name a label used in log messages, usually the imported file
+     * @return the open session, to be closed once the import is done
+     */
+    public ChunkedSession open(String name) {
+        return new ChunkedSession(name, null, null);
+    }
+
+    /**
+     * Opens a checkpointed session for a CSV file. If a checkpoint exists for the same file content,
+     * the reader is moved to the offset it records before the session is returned.
+     *
+     * @param name   the checkpoint key, usually the imported file
+     * @param reader the reader of the file, not yet past its header
+     * @return the open session, to be closed once the import is done
+     * @throws IOException if the file cannot be hashed or the reader cannot be moved
+     */
+    public ChunkedSession open(String name, MappedCsvReader reader) throws IOException {
+        if (!resume) {
+            return open(name);
+        }
+        String fileHash = ImportCheckpointStore.hash(reader.getPath());
+        ChunkedSession session = new ChunkedSession(name, reader, fileHash);
+        session.restore();
+        return session;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public class ChunkedSession implements AutoCloseable {
+
+        private final String name;
+        private TransactionStatus transaction;
+        private int rowsInChunk;
+        private long rowsCommitted;
+        private int failedChunks;
+        private final List<Runnable> chunkEndActions = new ArrayList<>();
+        private final List<Runnable> chunkCommitActions = new ArrayList<>();
+        private final List<Runnable> chunkRollbackActions = new ArrayList<>();
+        private final MappedCsvReader reader;
+        private final String fileHash;
+
+        private ChunkedSession(String name, MappedCsvReader reader, String fileHash) {
+            this.name = name;
+            this.reader = reader;
+            this.fileHash = fileHash;
+            this.transaction = begin();
+        }
+
+        /**
+         * Makes a new entity managed; it is inserted at the latest when the current chunk ends.
+         *
+         * @param entity the entity to persist
+         */
+        public void persist(Object entity) {
+            entityManager.persist(entity);
+        }
+
+        /**
+         * Registers work to run at the end of every chunk, before it is flushed and committed, such as
+         * sending the JDBC batches accumulated for the chunk.
+         *
+         * @param action the action to run
+         */
+        public void onChunkEnd(Runnable action) {
+            chunkEndActions.add(action);
+        }
+
+        /**
+         * Registers work to run once the transaction of a chunk has been committed, such as forgetting
+         * what would have had to be undone had it been rolled back.
+         *
+         * @param action the action to run
+         */
+        public void onChunkCommit(Runnable action) {
+            chunkCommitActions.add(action);
+        }
+
+        /**
+         * Registers work to run when a chunk is rolled back, such as forgetting state queued for it.
+         *
+         * @param action the action to run
+         */
+        public void onChunkRollback(Runnable action) {
+            chunkRollbackActions.add(action);
+        }
+
+        /**
+         * Marks the end of a CSV row, whether or not it produced new entities. Chunks only end on row
+         * boundaries so that entities created for the same row are never split between a managed and
+         * a detached state.
+         */
+        public void completeRow() {
+            rowsInChunk++;
+            if (rowsInChunk >= chunkSize) {
+                endChunk();
+            }
+        }
+
+        /**
+         * Flushes and clears the persistence context, and commits the chunk when commit-per-chunk
+         * is enabled.
+         */
+        public void endChunk() {
+            if (rowsInChunk == 0) {
+                return;
+            }
+            if (commitPerChunk) {
+                commit();
+                transaction = begin();
+            } else {
+                runChunkEndAction();
+                saveCheckpoint(false);
+                entityManager.flush();
+                entityManager.clear();
+                rowsCommitted += rowsInChunk;
+                importProgress.rowsCommitted(name, rowsCommitted);
+            }
+            rowsInChunk = 0;
+        }
+
+        public long getRowsCommitted() {
+            return rowsCommitted;
+        }
+
+        @Override
+        public void close() {
+            commit();
+            if (reader != null && reader.isAtEnd() && failedChunks == 0) {
+                checkpointStore.save(name, fileHash, reader.position(), rowsCommitted, true);
+            }
+            System.out.println(name + " - " + rowsCommitted + " rows committed"
+                    + (failedChunks > 0 ? ", " + failedChunks + " chunk(s) rolled back" : ""));
+        }
+
+        // Moves the reader past the rows already committed by a previous import of the same content
+        private void restore() throws IOException {
+            ImportCheckpointStore.Checkpoint checkpoint = checkpointStore.find(name).orElse(null);
+            if (checkpoint == null) {
+                return;
+            }
+            if (!checkpoint.fileHash().equals(fileHash)) {
+                System.out.println(name + " - content changed since the last import, starting from the beginning");
+                return;
+            }
+            if (checkpoint.completed()) {
+                System.out.println(name + " - already imported (" + checkpoint.rowsCommitted() + " rows), skipping");
+                reader.seek(reader.size());
+            } else {
+                System.out.println(name + " - resuming after " + checkpoint.rowsCommitted() + " committed rows");
+                reader.seek(checkpoint.byteOffset());
+            }
+            rowsCommitted = checkpoint.rowsCommitted();
+            importProgress.rowsCommitted(name, rowsCommitted);
+        }
+
+        // Not after a rollback: the reader is then past rows that were not written
+        private void saveCheckpoint(boolean completed) {
+            if (reader != null && failedChunks == 0) {
+                checkpointStore.save(name, fileHash, reader.position(), rowsCommitted + rowsInChunk, completed);
+            }
+        }
+
+        private void runChunkEndAction() {
+            chunkEndActions.forEach(Runnable::run);
+        }
+
+        private void runChunkCommitAction() {
+            chunkCommitActions.forEach(Runnable::run);
+        }
+
+        private void runChunkRollbackAction() {
+            chunkRollbackActions.forEach(Runnable::run);
+        }
+
+        private TransactionStatus begin() {
+            DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+            definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            definition.setName("chunked-import:" + name);
+            return transactionManager.getTransaction(definition);
+        }
+
+        private void commit() {
+            if (transaction == null || transaction.isCompleted()) {
+                return;
+            }
+            try {
+                if (transaction.isRollbackOnly()) {
+                    transactionManager.rollback(transaction);
+                    failedChunks++;
+                    runChunkRollbackAction();
+                    System.err.println(name + " - a chunk of " + rowsInChunk + " rows was rolled back after an error");
+                } else {
+                    runChunkEndAction();
+                    saveCheckpoint(false);
+                    entityManager.flush();
+                    entityManager.clear();
+                    transactionManager.commit(transaction);
+                    rowsCommitted += rowsInChunk;
+                    importProgress.rowsCommitted(name, rowsCommitted);
+                    runChunkCommitAction();
+                }
+            } catch (RuntimeException e) {
+                failedChunks++;
+                System.err.println(name + " - failed to commit a chunk of " + rowsInChunk + " rows: " + e.getMessage());
+                if (!transaction.isCompleted()) {
+                    transactionManager.rollback(transaction);
+                }
+                runChunkRollbackAction();
+            }
+        }
+    }
+}
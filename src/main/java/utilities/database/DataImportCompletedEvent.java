@@ -0,0 +1,11 @@
+package utilities.database;
+
+/**
+ * Published once the background CSV import has finished, successfully or not. Components that build
+ * in-memory views of the imported data listen to it instead of reading half-loaded tables at startup.
+ *
+ * @param successful false if the import stopped on an error or an import stage failed or was skipped;
+ *                   the tables may then be partly loaded
+ */
+public record DataImportCompletedEvent(boolean successful) {
+}
@@ -0,0 +1,25 @@
+package utilities.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code /actuator/dataimport} exposing the progress of the CSV import: overall
+ * state, status of each pipeline stage and rows committed per file.
+ */
+@Component
+@Endpoint(id = "dataimport")
+public class DataImportEndpoint {
+
+    @Autowired
+    private ImportProgress importProgress;
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return importProgress.snapshot();
+    }
+}
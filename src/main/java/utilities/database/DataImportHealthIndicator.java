@@ -0,0 +1,28 @@
+package utilities.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor {@code dataImport}. It is part of the readiness group (see
+ * {@code application.properties}), so {@code /actuator/health/readiness} reports OUT_OF_SERVICE
+ * while the CSV import is pending or running and DOWN if it failed.
+ */
+@Component("dataImport")
+public class DataImportHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private ImportProgress importProgress;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (importProgress.getState()) {
+            case PENDING, RUNNING -> Health.outOfService();
+            case COMPLETED -> Health.up();
+            case FAILED -> Health.down();
+        };
+        return builder.withDetails(importProgress.snapshot()).build();
+    }
+}
@@ -0,0 +1,65 @@
+package utilities.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Runs the database initialization and CSV import on the application task executor, so the application starts
+ * serving (and answering health probes) immediately. Progress is tracked in {@link ImportProgress};
+ * readiness stays OUT_OF_SERVICE until the job has finished, see {@link DataImportHealthIndicator}.
+ * The job fails if the initialization throws or if any import stage failed or was skipped.
+ */
+@Component
+public class DataImportJob {
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    @Autowired
+    private ImportProgress importProgress;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    /**
+     * Starts the import unless it has already been started.
+     */
+    public synchronized void start() {
+        if (importProgress.getState() != ImportProgress.State.PENDING) {
+            return;
+        }
+        importProgress.started();
+        taskExecutor.execute(this::runImport);
+    }
+
+    private void runImport() {
+        boolean successful = false;
+        try {
+            // A failed stage does not stop the others, so the job only succeeds if every stage completed
+            List<String> incomplete = databaseInitializer.createDatabase().stream()
+                    .filter(result -> result.status() != ImportPipeline.StageStatus.COMPLETED)
+                    .map(result -> result.name() + " " + result.status())
+                    .toList();
+            if (incomplete.isEmpty()) {
+                importProgress.completed();
+                successful = true;
+            } else {
+                System.err.println("Data import incomplete: " + String.join(", ", incomplete));
+                importProgress.failed(new IllegalStateException("Import stages did not complete: " + String.join(", ", incomplete)));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Data import failed: " + e.getMessage());
+            e.printStackTrace();
+            importProgress.failed(e);
+        } finally {
+            eventPublisher.publishEvent(new DataImportCompletedEvent(successful));
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 @Component
 public class DatabaseInitializer {
@@ -50,7 +51,15 @@ public class DatabaseInitializer {
     @Autowired
     private FilmRealisateurExtractor filmRealisateurExtractor;
 
-    public void createDatabase() {
+    @Autowired
+    private ImportProgress importProgress;
+
+    /**
+     * Creates the schema and the tables if needed, then imports the CSV files.
+     *
+     * @return the outcome of each import stage
+     */
+    public List<ImportPipeline.StageResult> createDatabase() {
         try (Connection connection = dataSource.getConnection()) {
             Statement statement = connection.createStatement();
             String sql = "CREATE SCHEMA IF NOT EXISTS bq6m2mlrafs4wqh3gcgt";
@@ -60,9 +69,10 @@ public class DatabaseInitializer {
             // Ensure tables are created
             createTablesIfNotExist(connection);
 
-            populateDatabase();
+            return populateDatabase();
         } catch (SQLException e) {
             e.printStackTrace();
+            throw new IllegalStateException("Database initialization failed: " + e.getMessage(), e);
         }
     }
 
@@ -124,6 +134,66 @@ public class DatabaseInitializer {
                 "film_imdb VARCHAR(255))";
         connection.createStatement().executeUpdate(createFilmActeurTable);
         System.out.println("Film_Acteur table created or already exists.");
+
+        migrateFilmNumericColumns(connection);
+        createLinkIndexes(connection);
+
+        // Create Import_Checkpoint table if not exists
+        connection.createStatement().executeUpdate(ImportCheckpointStore.CREATE_TABLE_SQL);
+        System.out.println("Import_Checkpoint table created or already exists.");
+
+        // Create Import_Fingerprint table if not exists
+        connection.createStatement().executeUpdate(RowFingerprintStore.CREATE_TABLE_SQL);
+        System.out.println("Import_Fingerprint table created or already exists.");
+    }
+
+    /**
+     * Adds the indexed numeric year and rating columns to film and fills them for the rows stored
+     * before they existed. New and updated films are kept in sync by {@code Film#syncNumericColumns}.
+     */
+    private void migrateFilmNumericColumns(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("ALTER TABLE film ADD COLUMN IF NOT EXISTS annee_debut INT NULL");
+            statement.executeUpdate("ALTER TABLE film ADD COLUMN IF NOT EXISTS rating_value DOUBLE NULL");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_film_annee_debut ON film (annee_debut)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_film_rating_value ON film (rating_value)");
+            int years = statement.executeUpdate("UPDATE film SET annee_debut = CAST(LEFT(TRIM(annee), 4) AS UNSIGNED) " +
+                    "WHERE annee_debut IS NULL AND TRIM(annee) REGEXP '^[0-9]{4}([^0-9]|$)'");
+            int ratings = statement.executeUpdate("UPDATE film SET rating_value = CAST(REPLACE(TRIM(rating), ',', '.') AS DECIMAL(4,1)) " +
+                    "WHERE rating_value IS NULL AND TRIM(rating) REGEXP '^[0-9]+([.,][0-9]+)?$'");
+            System.out.println("Film numeric columns ready (" + years + " years and " + ratings + " ratings backfilled).");
+        }
+    }
+
+    /**
+     * Adds to the link tables a unique key on their IMDb ID columns, which the importer relies on to
+     * skip duplicates with {@code INSERT IGNORE}, and an index for the lookups by the second column.
+     * With the primary key appended by InnoDB, both indexes cover the link queries. {@code ALTER IGNORE}
+     * drops the duplicate rows stored before the unique key existed. The link tables are joined to film
+     * and acteur on their IMDb IDs, which get an index too. The link table indexes are only declared
+     * here, for new and existing schemas alike.
+     */
+    private void createLinkIndexes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // The importer stores a missing character name as '' since NULLs are distinct in the unique key;
+            // rows stored as NULL before are converted, or dropped when the converted row already exists
+            statement.executeUpdate("UPDATE IGNORE role SET role_name = '' WHERE role_name IS NULL");
+            statement.executeUpdate("DELETE FROM role WHERE role_name IS NULL");
+            statement.executeUpdate("ALTER IGNORE TABLE role ADD UNIQUE INDEX IF NOT EXISTS uk_role_film_acteur_name (film_id, acteur_id, role_name)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_role_acteur_film_name ON role (acteur_id, film_id, role_name)");
+
+            statement.executeUpdate("ALTER IGNORE TABLE casting_principal ADD UNIQUE INDEX IF NOT EXISTS uk_casting_film_acteur (film_id, acteur_id)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_casting_acteur_film ON casting_principal (acteur_id, film_id)");
+
+            statement.executeUpdate("ALTER IGNORE TABLE film_acteur ADD UNIQUE INDEX IF NOT EXISTS uk_film_acteur (film_imdb, acteur_id_imdb)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_film_acteur_acteur ON film_acteur (acteur_id_imdb, film_imdb)");
+
+            statement.executeUpdate("ALTER IGNORE TABLE film_realisateur ADD UNIQUE INDEX IF NOT EXISTS uk_film_realisateur (film_imdb, realisateur_id_imdb)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_film_realisateur_realisateur ON film_realisateur (realisateur_id_imdb, film_imdb)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_film_imdb ON film (imdb)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_acteur_imdb ON acteur (id_imdb)");
+            System.out.println("Link table indexes ready.");
+        }
     }
 
     private boolean tableExists(DatabaseMetaData metaData, String tableName) throws SQLException {
@@ -132,23 +202,24 @@ public class DatabaseInitializer {
         }
     }
 
-    private void populateDatabase() {
-        // Populate Film table
-        //filmExtractor.extractAndSaveFilmsFromCSV("src/main/resources/CSV/films.csv");
-
-        // Populate Realisateur table
-        //realisateurExtractor.extractRealisateursFromCSV("src/main/resources/CSV/realisateurs.csv");
-
-        // Populate Film_Realisateur table
-        //filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV("src/main/resources/CSV/film_realisateurs.csv");
-
-        // Populate Casting Principal table
-        //castingPrincipalExtractor.extractCastingPrincipalsFromCSV("src/main/resources/CSV/castingPrincipal.csv");
-
-        // Populate Personne and Acteur tables
-        //actorExtractor.extractActorsFromCSV("src/main/resources/CSV/acteurs.csv");
-
-        // Populate Role table
-        roleExtractor.extractRolesFromCSV("src/main/resources/CSV/roles.csv");
+    private List<ImportPipeline.StageResult> populateDatabase() {
+        // Films and people have no dependency on each other and are loaded first. Actors and realisateurs
+        // both find-or-create rows in the shared personne table, so they are kept sequential.
+        // The link tables only need the films and the people they reference.
+        // An extractor that cannot read its file throws, which fails its stage and skips the stages that depend on it.
+        return new ImportPipeline(Runtime.getRuntime().availableProcessors())
+                .listener(importProgress)
+                .stage("films", () -> filmExtractor.extractAndSaveFilmsFromCSV("src/main/resources/CSV/films.csv"))
+                .stage("acteurs", () -> actorExtractor.extractActorsFromCSV("src/main/resources/CSV/acteurs.csv"))
+                .stage("realisateurs", () -> realisateurExtractor.extractRealisateursFromCSV("src/main/resources/CSV/realisateurs.csv"),
+                        "acteurs")
+                .stage("film_realisateur", () -> filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV("src/main/resources/CSV/film_realisateurs.csv"),
+                        "films", "realisateurs")
+                .stage("casting_principal", () -> castingPrincipalExtractor.extractCastingPrincipalsFromCSV("src/main/resources/CSV/castingPrincipal.csv"),
+                        "films", "acteurs")
+                // Batched JDBC inserts, see RoleExtractor#extractRolesFromCSVBulk
+                .stage("roles", () -> roleExtractor.extractRolesFromCSVBulk("src/main/resources/CSV/roles.csv"),
+                        "films", "acteurs")
+                .run();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package utilities.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the {@code import_checkpoint} table, which records for each imported CSV file the
+ * hash of its content, the byte offset just after the last committed row and the number of rows
+ * committed so far. Checkpoints are written with the {@link JdbcTemplate} inside the chunk transaction,
+ * so a checkpoint is never ahead of (or behind) the rows it describes.
+ */
+@Component
+public class ImportCheckpointStore {
+
+    public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS import_checkpoint (" +
+            "file_name VARCHAR(255) PRIMARY KEY, " +
+            "file_hash CHAR(64) NOT NULL, " +
+            "byte_offset BIGINT NOT NULL, " +
+            "rows_committed BIGINT NOT NULL, " +
+            "completed BOOLEAN NOT NULL DEFAULT FALSE, " +
+            "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP)";
+
+    private static final String SELECT_SQL = "SELECT file_hash, byte_offset, rows_committed, completed " +
+            "FROM import_checkpoint WHERE file_name = ?";
+
+    private static final String UPSERT_SQL = "INSERT INTO import_checkpoint " +
+            "(file_name, file_hash, byte_offset, rows_committed, completed) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE file_hash = VALUES(file_hash), byte_offset = VALUES(byte_offset), " +
+            "rows_committed = VALUES(rows_committed), completed = VALUES(completed)";
+
+    public record Checkpoint(String fileHash, long byteOffset, long rowsCommitted, boolean completed) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<Checkpoint> find(String fileName) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new Checkpoint(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getBoolean(4)),
+                fileName);
+        return checkpoints.stream().findFirst();
+    }
+
+    public void save(String fileName, String fileHash, long byteOffset, long rowsCommitted, boolean completed) {
+        jdbcTemplate.update(UPSERT_SQL, fileName, fileHash, byteOffset, rowsCommitted, completed);
+    }
+
+    /**
+     * @param path the file to hash
+     * @return the hex-encoded SHA-256 of the file content
+     * @throws IOException if the file cannot be read
+     */
+    public static String hash(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package utilities.database;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the CSV import stages on a bounded executor.
+ * <p>
+ * Each stage declares the stages it depends on and is started as soon as all of them have completed,
+ * so independent stages run concurrently. A stage whose dependency failed is skipped. Once every stage
+ * has finished, the time spent in each of them is reported.
+ */
+public class ImportPipeline {
+
+    public enum StageStatus { COMPLETED, FAILED, SKIPPED }
+
+    public record StageResult(String name, StageStatus status, long durationMillis) {
+    }
+
+    /**
+     * Receives stage notifications from the import threads.
+     */
+    public interface StageListener {
+        void stageStarted(String name);
+
+        void stageFinished(StageResult result);
+    }
+
+    private record Stage(String name, Runnable task, List<String> dependencies) {
+    }
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final int parallelism;
+    private StageListener listener;
+
+    public ImportPipeline(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Registers a stage. Dependencies must be registered before the stages that use them, which also
+     * guarantees that the stage graph has no cycle.
+     *
+     * @param name      the unique name of the stage
+     * @param task      the work done by the stage, which fails the stage by throwing
+     * @param dependsOn the names of the stages that must complete first
+     * @return this pipeline
+     */
+    public ImportPipeline stage(String name, Runnable task, String... dependsOn) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate import stage: " + name);
+        }
+        for (String dependency : dependsOn) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("Stage " + name + " depends on unknown stage " + dependency);
+            }
+        }
+        stages.put(name, new Stage(name, task, List.of(dependsOn)));
+        return this;
+    }
+
+    /**
+     * Sets the listener notified when each stage starts and finishes.
+     *
+     * @param listener the listener
+     * @return this pipeline
+     */
+    public ImportPipeline listener(StageListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Runs every registered stage and blocks until all of them have completed, failed or been skipped.
+     *
+     * @return the outcome and duration of each stage, in registration order
+     */
+    public List<StageResult> run() {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, stages.size())),
+                new ImportThreadFactory());
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        Map<String, StageResult> results = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+
+        try {
+            for (Stage stage : stages.values()) {
+                CompletableFuture<?>[] dependencies = stage.dependencies().stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+
+                CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+                        .thenRunAsync(() -> runStage(stage, results), executor);
+                futures.put(stage.name(), future);
+            }
+
+            try {
+                CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                // Failures are recorded per stage; keep waiting for the branches that are still running
+                futures.values().forEach(future -> future.exceptionally(ex -> null).join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<StageResult> ordered = new ArrayList<>();
+        for (String name : stages.keySet()) {
+            StageResult result = results.get(name);
+            if (result == null) {
+                result = new StageResult(name, StageStatus.SKIPPED, 0);
+                notifyFinished(result);
+            }
+            ordered.add(result);
+        }
+        report(ordered, (System.nanoTime() - start) / 1_000_000);
+        return ordered;
+    }
+
+    private void runStage(Stage stage, Map<String, StageResult> results) {
+        System.out.println("Import stage started: " + stage.name());
+        if (listener != null) {
+            listener.stageStarted(stage.name());
+        }
+        long stageStart = System.nanoTime();
+        try {
+            stage.task().run();
+            StageResult result = new StageResult(stage.name(), StageStatus.COMPLETED, elapsedMillis(stageStart));
+            results.put(stage.name(), result);
+            notifyFinished(result);
+        } catch (RuntimeException e) {
+            StageResult result = new StageResult(stage.name(), StageStatus.FAILED, elapsedMillis(stageStart));
+            results.put(stage.name(), result);
+            notifyFinished(result);
+            System.err.println("Import stage failed: " + stage.name() + " - " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private void notifyFinished(StageResult result) {
+        if (listener != null) {
+            listener.stageFinished(result);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static void report(List<StageResult> results, long totalMillis) {
+        System.out.println("Import finished in " + totalMillis + " ms");
+        for (StageResult result : results) {
+            System.out.printf("  %-20s %-10s %8d ms%n", result.name(), result.status(), result.durationMillis());
+        }
+    }
+
+    private static class ImportThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "csv-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
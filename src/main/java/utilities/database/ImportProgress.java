@@ -0,0 +1,90 @@
+package utilities.database;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live state of the CSV import, updated by the import threads and read by the {@code dataimport}
+ * Actuator endpoint and the readiness health indicator.
+ */
+@Component
+public class ImportProgress implements ImportPipeline.StageListener {
+
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private volatile State state = State.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    private final Map<String, String> stages = new ConcurrentHashMap<>();
+    private final Map<String, Long> rowsCommitted = new ConcurrentHashMap<>();
+
+    public void started() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    public void completed() {
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    public void failed(Exception e) {
+        finishedAt = Instant.now();
+        error = e.getMessage();
+        state = State.FAILED;
+    }
+
+    @Override
+    public void stageStarted(String name) {
+        stages.put(name, "RUNNING");
+    }
+
+    @Override
+    public void stageFinished(ImportPipeline.StageResult result) {
+        stages.put(result.name(), result.status().name());
+    }
+
+    /**
+     * Records the rows committed so far for an imported file.
+     */
+    public void rowsCommitted(String file, long rows) {
+        rowsCommitted.put(file, rows);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    /**
+     * @return a point-in-time copy of the progress without null values, suitable for JSON serialization
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state);
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            snapshot.put("startedAt", startedAt.toString());
+            snapshot.put("durationMillis", Duration.between(startedAt, end).toMillis());
+        }
+        if (finishedAt != null) {
+            snapshot.put("finishedAt", finishedAt.toString());
+        }
+        snapshot.put("stages", new LinkedHashMap<>(stages));
+        snapshot.put("rowsCommitted", new LinkedHashMap<>(rowsCommitted));
+        if (error != null) {
+            snapshot.put("error", error);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,96 @@
+package utilities.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads two-column link files ({@code film_realisateurs.csv}, {@code castingPrincipal.csv}) with
+ * {@code LOAD DATA LOCAL INFILE} instead of one {@code INSERT} per row.
+ * <p>
+ * The file is streamed to the server through the MariaDB driver's
+ * {@link org.mariadb.jdbc.Statement#setLocalInfileInputStream(InputStream)}, so no file has to exist
+ * on the database host. Rows are first loaded into a temporary staging table and then merged into the
+ * target table with a single {@code INSERT IGNORE ... SELECT}, the unique key of the target table
+ * skipping the pairs already present. The fast path is enabled with {@code imdb.import.local-infile};
+ * the server must also allow {@code local_infile}. When the load fails, nothing is written and the
+ * caller falls back to the row by row import.
+ */
+@Component
+public class LocalInfileLoader {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${imdb.import.local-infile:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the first two columns of a {@code ;}-separated file with a header row into a link table.
+     *
+     * @param filePath     the CSV file
+     * @param targetTable  the link table
+     * @param firstColumn  the target column receiving the first CSV column
+     * @param secondColumn the target column receiving the second CSV column
+     * @return the number of rows inserted into the target table, or -1 if the load failed
+     */
+    public long loadPairs(String filePath, String targetTable, String firstColumn, String secondColumn) {
+        String stagingTable = "staging_" + targetTable;
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection();
+             InputStream input = Files.newInputStream(Path.of(filePath))) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TEMPORARY TABLE IF NOT EXISTS " + stagingTable + " (" +
+                        "first_value VARCHAR(255), second_value VARCHAR(255))");
+                statement.executeUpdate("TRUNCATE TABLE " + stagingTable);
+
+                statement.unwrap(org.mariadb.jdbc.Statement.class).setLocalInfileInputStream(input);
+                long staged = statement.executeLargeUpdate("LOAD DATA LOCAL INFILE 'stream' " +
+                        "INTO TABLE " + stagingTable + " CHARACTER SET utf8mb4 " +
+                        "FIELDS TERMINATED BY ';' OPTIONALLY ENCLOSED BY '\"' " +
+                        "LINES TERMINATED BY '\\n' IGNORE 1 LINES " +
+                        "(@first, @second) " +
+                        "SET first_value = NULLIF(TRIM(TRAILING '\\r' FROM TRIM(@first)), ''), " +
+                        "second_value = NULLIF(TRIM(TRAILING '\\r' FROM TRIM(@second)), '')");
+
+                // Set-based merge: duplicates inside the file and pairs already stored are skipped by the
+                // unique key of the target table
+                long inserted = statement.executeLargeUpdate("INSERT IGNORE INTO " + targetTable +
+                        " (" + firstColumn + ", " + secondColumn + ") " +
+                        "SELECT s.first_value, s.second_value FROM " + stagingTable + " s " +
+                        "WHERE s.first_value IS NOT NULL AND s.second_value IS NOT NULL");
+
+                statement.executeUpdate("DROP TEMPORARY TABLE " + stagingTable);
+                connection.commit();
+
+                System.out.println(filePath + " - LOAD DATA staged " + staged + " rows, inserted " + inserted
+                        + " into " + targetTable + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                return inserted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println(filePath + " - LOAD DATA LOCAL INFILE failed, falling back to row inserts: " + e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package utilities.database;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row fingerprints for incremental imports, stored in the {@code import_fingerprint} table.
+ * <p>
+ * A fingerprint is the content hash of a CSV row, keyed by the source file and the row's IMDb
+ * identifier. With {@code imdb.import.incremental} enabled, the extractors load the fingerprints of
+ * their file once, skip the rows whose hash did not change since the previous import and only insert
+ * or update the others, recording their new hash in the same transaction as the row itself.
+ */
+@Component
+public class RowFingerprintStore {
+
+    public static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS import_fingerprint (" +
+            "source VARCHAR(50) NOT NULL, " +
+            "row_key VARCHAR(255) NOT NULL, " +
+            "content_hash BIGINT NOT NULL, " +
+            "PRIMARY KEY (source, row_key))";
+
+    private static final String UPSERT_SQL = "INSERT INTO import_fingerprint (source, row_key, content_hash) " +
+            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE content_hash = VALUES(content_hash)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${imdb.import.incremental:false}")
+    private boolean incremental;
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Loads the fingerprints recorded for a source.
+     *
+     * @param source the source name, e.g. {@code films}
+     * @return the fingerprints, or null when incremental imports are disabled
+     */
+    public Fingerprints load(String source) {
+        if (!incremental) {
+            return null;
+        }
+        Fingerprints fingerprints = new Fingerprints(source);
+        jdbcTemplate.query("SELECT row_key, content_hash FROM import_fingerprint WHERE source = ?",
+                rs -> {
+                    fingerprints.hashes.put(rs.getString(1), rs.getLong(2));
+                }, source);
+        return fingerprints;
+    }
+
+    public class Fingerprints {
+
+        private final String source;
+        private final Map<String, Long> hashes = new HashMap<>();
+        private final List<Object[]> pending = new ArrayList<>();
+        private int unchanged;
+
+        private Fingerprints(String source) {
+            this.source = source;
+        }
+
+        /**
+         * @return true if the row was imported before with exactly the same content
+         */
+        public boolean isUnchanged(String rowKey, long contentHash) {
+            Long previous = hashes.get(rowKey);
+            if (previous != null && previous == contentHash) {
+                unchanged++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Queues the new hash of an inserted or updated row; it is written by {@link #flush()}.
+         */
+        public void record(String rowKey, long contentHash) {
+            hashes.put(rowKey, contentHash);
+            pending.add(new Object[]{source, rowKey, contentHash});
+        }
+
+        /**
+         * Writes the queued hashes as one JDBC batch. Meant to run at the end of each import chunk.
+         */
+        public void flush() {
+            if (!pending.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, pending);
+                pending.clear();
+            }
+        }
+
+        /**
+         * Drops the queued hashes, and forgets them in memory, when their chunk was rolled back.
+         */
+        public void discardPending() {
+            for (Object[] row : pending) {
+                hashes.remove((String) row[1]);
+            }
+            pending.clear();
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import service.ActeurService;
 import web.model.dto.ActeurDTO;
+import web.model.dto.CoStar;
+import web.model.dto.FilmographyEntry;
 import web.model.generic.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -76,6 +78,42 @@ public class ActeurController {
 
 
 
+    // Films of an Acteur with the characters played
+    @GetMapping("/{imdb}/films")
+    public ResponseEntity<ApiResponse<List<FilmographyEntry>>> getFilmography(@PathVariable String imdb) {
+        try {
+            List<FilmographyEntry> films = acteurService.findFilmography(imdb);
+            ApiResponse<List<FilmographyEntry>> response = new ApiResponse<>(HttpStatus.OK.value(), "Films retrieved successfully", films);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (EntityNotFoundException ex) {
+            logger.warn("Acteur not found for filmography, imdb {}: {}", imdb, ex.getMessage());
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (Exception ex) {
+            logger.error("An error occurred while retrieving the films of the acteur, imdb {}: {}", imdb, ex.getMessage(), ex);
+            throw new RuntimeException("An error occurred while retrieving the films of the acteur", ex);  // Handled by the Global Exception Handler
+        }
+    }
+
+    // Actors who played in a film with an Acteur, with the shared films
+    @GetMapping("/{imdb}/costars")
+    public ResponseEntity<ApiResponse<List<CoStar>>> getCoStars(@PathVariable String imdb,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<CoStar> coStars = acteurService.findCoStars(imdb, limit);
+            ApiResponse<List<CoStar>> response = new ApiResponse<>(HttpStatus.OK.value(), "Co-stars retrieved successfully", coStars);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (EntityNotFoundException ex) {
+            logger.warn("Acteur not found for co-stars, imdb {}: {}", imdb, ex.getMessage());
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (InvalidDataException ex) {
+            logger.warn("Invalid limit for co-stars, imdb {}: {}", imdb, ex.getMessage());
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (Exception ex) {
+            logger.error("An error occurred while retrieving the co-stars of the acteur, imdb {}: {}", imdb, ex.getMessage(), ex);
+            throw new RuntimeException("An error occurred while retrieving the co-stars of the acteur", ex);  // Handled by the Global Exception Handler
+        }
+    }
+
     // Optional: If you have a search method with filters (for example, by name, date, etc.)
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<ActeurDTO>>> searchActeurs(
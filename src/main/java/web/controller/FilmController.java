@@ -4,8 +4,12 @@ import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import service.FilmService;
 
+import web.model.dto.CastMember;
 import web.model.dto.FilmDTO;
+import web.model.dto.FilmSearchCriteria;
+import web.model.dto.FilmSummary;
 import web.model.generic.ApiResponse;
+import web.model.generic.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,18 +27,32 @@ public class FilmController {
 
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<FilmDTO>>> searchFilms(
-            @RequestParam(required = false) String nom,
-            @RequestParam(required = false) String annee,
-            @RequestParam(required = false) String rating,
-            @RequestParam(required = false) String paysName,
-            @RequestParam(required = false) String genreName,
-            @RequestParam(required = false) String sortBy
+            @ModelAttribute FilmSearchCriteria criteria,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit
     ) {
         try {
-            List<FilmDTO> films = filmService.findFilmsWithFiltersAndSorting(nom, annee, rating, paysName, genreName, sortBy);
-            ApiResponse<List<FilmDTO>> response = new ApiResponse<>(HttpStatus.OK.value(), "Films retrieved successfully", films);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (InvalidDataException ex) {
+            KeysetPage<FilmDTO> page = filmService.findFilmsWithFiltersAndSorting(criteria, after, limit);
+            ApiResponse<List<FilmDTO>> response = new ApiResponse<>(HttpStatus.OK.value(), "Films retrieved successfully", page.items());
+            return new ResponseEntity<>(response, page.headers(), HttpStatus.OK);
+        } catch (EntityNotFoundException | InvalidDataException ex) {
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (Exception ex) {
+            throw new RuntimeException("An error occurred while searching for films", ex);  // Handled by the Global Exception Handler
+        }
+    }
+
+    @GetMapping("/search/summary")
+    public ResponseEntity<ApiResponse<List<FilmSummary>>> searchFilmSummaries(
+            @ModelAttribute FilmSearchCriteria criteria,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit
+    ) {
+        try {
+            KeysetPage<FilmSummary> page = filmService.findFilmSummariesWithFiltersAndSorting(criteria, after, limit);
+            ApiResponse<List<FilmSummary>> response = new ApiResponse<>(HttpStatus.OK.value(), "Films retrieved successfully", page.items());
+            return new ResponseEntity<>(response, page.headers(), HttpStatus.OK);
+        } catch (EntityNotFoundException | InvalidDataException ex) {
             throw ex;  // Handled by the Global Exception Handler
         } catch (Exception ex) {
             throw new RuntimeException("An error occurred while searching for films", ex);  // Handled by the Global Exception Handler
@@ -65,6 +83,19 @@ public class FilmController {
         }
     }
 
+    // Cast of a film, principal cast first
+    @GetMapping("/imdb/{imdb}/cast")
+    public ResponseEntity<ApiResponse<List<CastMember>>> getFilmCast(@PathVariable String imdb) {
+        try {
+            List<CastMember> cast = filmService.findCast(imdb);
+            ApiResponse<List<CastMember>> response = new ApiResponse<>(HttpStatus.OK.value(), "Cast retrieved successfully", cast);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (EntityNotFoundException ex) {
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (Exception ex) {
+            throw new RuntimeException("An error occurred while retrieving the cast of the film", ex);  // Handled by the Global Exception Handler
+        }
+    }
 
     @GetMapping("/name/{nom}")
     public ResponseEntity<ApiResponse<List<FilmDTO>>> getFilmsByName(@PathVariable String nom) {
@@ -82,6 +113,35 @@ public class FilmController {
         }
     }
 
+    @GetMapping("/name/{nom}/summary")
+    public ResponseEntity<ApiResponse<List<FilmSummary>>> getFilmSummariesByName(@PathVariable String nom) {
+        try {
+            List<FilmSummary> films = filmService.findFilmSummariesByName(nom);
+            ApiResponse<List<FilmSummary>> response = new ApiResponse<>(HttpStatus.OK.value(), "Films retrieved successfully", films);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (EntityNotFoundException ex) {
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (Exception ex) {
+            throw new RuntimeException("An error occurred while retrieving films by name", ex);  // Handled by the Global Exception Handler
+        }
+    }
+
+    @GetMapping("/fulltext")
+    public ResponseEntity<ApiResponse<List<FilmDTO>>> searchFilmsFullText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        try {
+            List<FilmDTO> films = filmService.searchFullText(q, limit);
+            ApiResponse<List<FilmDTO>> response = new ApiResponse<>(HttpStatus.OK.value(), "Films retrieved successfully", films);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (EntityNotFoundException | InvalidDataException ex) {
+            throw ex;  // Handled by the Global Exception Handler
+        } catch (Exception ex) {
+            throw new RuntimeException("An error occurred while searching films", ex);  // Handled by the Global Exception Handler
+        }
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<FilmDTO>> createFilm(@RequestBody FilmDTO filmDTO) {
         try {
@@ -122,10 +182,4 @@ public class FilmController {
             throw new RuntimeException("An error occurred while deleting the film", ex);  // Handled by the Global Exception Handler
         }
     }
-
-    //@GetMapping("/by-actor/{actorId}")
-    //public ResponseEntity<List<Film>> getFilmsByActor(@PathVariable Long actorId) {
-    //    List<Film> films = filmService.findFilmsByActor(actorId);
-    //    return ResponseEntity.ok(films);
-    //}
 }
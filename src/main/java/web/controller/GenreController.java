@@ -3,11 +3,17 @@ package web.controller;
 
 import entities.business.genre.Genre;
 import service.GenreService;
+import service.ReferenceSnapshot;
 import web.model.dto.GenreDTO;
+import web.model.generic.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,14 +21,31 @@ import java.util.Optional;
 @RequestMapping("/api/genres")
 public class GenreController {
 
+    // Clients may reuse the list for a minute, then revalidate it with If-None-Match
+    private static final CacheControl REFERENCE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).mustRevalidate();
+
     @Autowired
     private GenreService genreService;
 
     @GetMapping
-    public List<GenreDTO> getAllGenres() {
-        return genreService.findAll().stream()
+    public ResponseEntity<List<GenreDTO>> getAllGenres(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ReferenceSnapshot<Genre> snapshot = genreService.getSnapshot();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).cacheControl(REFERENCE_CACHE_CONTROL).build();
+        }
+        KeysetPage<Genre> page = snapshot.page(after, limit);
+        List<GenreDTO> genres = page.items().stream()
                 .map(this::convertToDTO)
                 .toList();
+        return ResponseEntity.ok()
+                .headers(page.headers())
+                .eTag(snapshot.etag())
+                .cacheControl(REFERENCE_CACHE_CONTROL)
+                .body(genres);
     }
 
     @GetMapping("/{id}")
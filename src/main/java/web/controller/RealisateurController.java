@@ -3,6 +3,7 @@ package web.controller;
 import service.RealisateurService;
 import web.model.dto.RealisateurDTO;
 import web.model.generic.ApiResponse;
+import web.model.generic.KeysetPage;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import exceptions.ServiceException;
@@ -26,10 +27,13 @@ public class RealisateurController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<RealisateurDTO>>> getAllRealisateurs() {
-        List<RealisateurDTO> realisateurs = realisateurService.findAll();
-        ApiResponse<List<RealisateurDTO>> response = new ApiResponse<>(HttpStatus.OK.value(), "Realisateurs fetched successfully", realisateurs);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse<List<RealisateurDTO>>> getAllRealisateurs(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit
+    ) {
+        KeysetPage<RealisateurDTO> page = realisateurService.findPage(after, limit);
+        ApiResponse<List<RealisateurDTO>> response = new ApiResponse<>(HttpStatus.OK.value(), "Realisateurs fetched successfully", page.items());
+        return ResponseEntity.ok().headers(page.headers()).body(response);
     }
 
     @GetMapping("/{id}")
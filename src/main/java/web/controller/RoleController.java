@@ -2,6 +2,7 @@ package web.controller;
 
 import service.RoleService;
 import web.model.dto.RoleDTO;
+import web.model.generic.KeysetPage;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,23 +24,30 @@ public class RoleController {
     }
 
     /**
-     * Finds roles with optional filters.
+     * Finds roles with optional filters, one page at a time. The cursor of the next page, if any, is
+     * returned in the {@value KeysetPage#NEXT_CURSOR_HEADER} header.
      *
      * @param roleName the name of the role (optional)
-     * @param filmId   the ID of the film associated with the role (optional)
-     * @param actorId  the ID of the actor associated with the role (optional)
+     * @param filmId   the IMDb ID of the film associated with the role (optional)
+     * @param actorId  the IMDb ID of the actor associated with the role (optional)
+     * @param after    the cursor of the page (optional, first page when absent)
+     * @param limit    the maximum number of roles of the page
      * @return a ResponseEntity with the list of RoleDTO objects
      */
     @GetMapping
     public ResponseEntity<List<RoleDTO>> findRolesWithFilters(
             @RequestParam(required = false) String roleName,
-            @RequestParam(required = false) Long filmId,
-            @RequestParam(required = false) Long actorId) {
+            @RequestParam(required = false) String filmId,
+            @RequestParam(required = false) String actorId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
         try {
-            List<RoleDTO> roles = roleService.findRolesWithFilters(roleName, filmId, actorId);
-            return ResponseEntity.ok(roles);
+            KeysetPage<RoleDTO> page = roleService.findRolesWithFilters(roleName, filmId, actorId, after, limit);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        } catch (InvalidDataException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
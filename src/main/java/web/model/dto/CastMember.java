@@ -0,0 +1,11 @@
+package web.model.dto;
+
+import java.util.List;
+
+/**
+ * An actor of a film's cast with the characters played in it.
+ *
+ * @param principal true if the actor is part of the film's principal cast (casting_principal)
+ */
+public record CastMember(String acteurImdb, String identite, String url, boolean principal, List<String> roleNames) {
+}
@@ -0,0 +1,12 @@
+package web.model.dto;
+
+import java.util.List;
+
+/**
+ * An actor who played in at least one film with another actor.
+ *
+ * @param sharedFilmCount the number of films both actors played in
+ * @param sharedFilms     the IMDb IDs of those films
+ */
+public record CoStar(String acteurImdb, String identite, int sharedFilmCount, List<String> sharedFilms) {
+}
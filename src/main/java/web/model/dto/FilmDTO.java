@@ -30,11 +30,17 @@ public class FilmDTO {
         dto.setLieuTour(film.getLieuTour());
         dto.setLangue(film.getLangue());
         dto.setResume(film.getResume());
-        dto.setPays(film.getPays());
+        dto.setPays(copyOf(film.getPays()));
         dto.setGenres(film.getGenres());
         return dto;
     }
 
+    // Plain copy of the country: the DTO is serialized and cached after the persistence context is
+    // closed, when a lazy Pays proxy could no longer be read
+    private static Pays copyOf(Pays pays) {
+        return pays == null ? null : new Pays(pays.getId(), pays.getName());
+    }
+
     public Film toEntity() {
         Film film = new Film();
         film.setId(this.id);
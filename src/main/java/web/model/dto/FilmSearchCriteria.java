@@ -0,0 +1,70 @@
+package web.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Query parameters of the film search. Every criterion is optional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilmSearchCriteria {
+    private String nom;
+    private String annee;
+    private String rating;
+    // Numeric ranges, bounds included
+    private Double minRating;
+    private Double maxRating;
+    private Integer fromYear;
+    private Integer toYear;
+    private String paysName;
+    // One genre or a comma-separated list, e.g. Comedy,Drama
+    private String genreName;
+    // all to require every genre of genreName, any (the default) to require one of them
+    private String genreMode;
+    // nom, annee or rating, prefixed with - for descending order
+    private String sortBy;
+
+    /**
+     * @return a copy with the text criteria trimmed, lowercased when matching ignores case, and null
+     * when blank, so that equivalent searches are equal
+     */
+    public FilmSearchCriteria normalized() {
+        FilmSearchCriteria normalized = new FilmSearchCriteria();
+        normalized.setNom(lower(nom));
+        normalized.setAnnee(trim(annee));
+        normalized.setRating(trim(rating));
+        normalized.setMinRating(minRating);
+        normalized.setMaxRating(maxRating);
+        normalized.setFromYear(fromYear);
+        normalized.setToYear(toYear);
+        normalized.setPaysName(lower(paysName));
+        normalized.setGenreName(genreName == null ? null : lower(Arrays.stream(genreName.split(","))
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","))));
+        normalized.setGenreMode(lower(genreMode));
+        normalized.setSortBy(trim(sortBy));
+        return normalized;
+    }
+
+    private static String trim(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static String lower(String value) {
+        String trimmed = trim(value);
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,8 @@
+package web.model.dto;
+
+/**
+ * Lightweight view of a film for list responses: no summary text and only the name of the country.
+ * It is selected directly by the query, see {@code IFilmSummaryQueries}.
+ */
+public record FilmSummary(Long id, String imdb, String nom, String annee, String rating, String paysName) {
+}
@@ -0,0 +1,9 @@
+package web.model.dto;
+
+import java.util.List;
+
+/**
+ * A film of an actor's filmography with the characters the actor played in it.
+ */
+public record FilmographyEntry(Long filmId, String imdb, String nom, String annee, String rating, List<String> roleNames) {
+}
@@ -0,0 +1,60 @@
+package web.model.generic;
+
+import exceptions.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset-paginated page: the sort key it was ordered by, the value of
+ * that key and the row id used as tie-breaker. It is sent to clients as an opaque URL-safe string.
+ *
+ * @param sortKey the sort key, {@code id} for lists ordered by id only
+ * @param value   the value of the sort key for the last row, null when sorting by id only
+ * @param id      the id of the last row
+ */
+public record KeysetCursor(String sortKey, String value, long id) {
+
+    private static final char SEPARATOR = '\u001F';
+
+    public static KeysetCursor ofId(long id) {
+        return new KeysetCursor("id", null, id);
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id + SEPARATOR + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param cursor          the encoded cursor, may be null for the first page
+     * @param expectedSortKey the sort key of the current request
+     * @return the decoded cursor, or null when no cursor was given
+     * @throws InvalidDataException if the cursor is malformed or was issued for another sort order
+     */
+    public static KeysetCursor decode(String cursor, String expectedSortKey) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new InvalidDataException("Invalid pagination cursor");
+            }
+            String sortKey = raw.substring(0, first);
+            if (!sortKey.equals(expectedSortKey)) {
+                throw new InvalidDataException("Pagination cursor does not match the requested sort order");
+            }
+            long id = Long.parseLong(raw.substring(first + 1, second));
+            String value = "id".equals(sortKey) ? null : raw.substring(second + 1);
+            return new KeysetCursor(sortKey, value, id);
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException
+            throw new InvalidDataException("Invalid pagination cursor");
+        }
+    }
+}
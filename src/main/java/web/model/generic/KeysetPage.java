@@ -0,0 +1,56 @@
+package web.model.generic;
+
+import exceptions.InvalidDataException;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list.
+ *
+ * @param items      the items of the page
+ * @param nextCursor the cursor of the next page, or null on the last page
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * @throws InvalidDataException if the limit is outside 1..{@value #MAX_LIMIT}
+     */
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidDataException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    /**
+     * @return the response headers of the page: {@value #NEXT_CURSOR_HEADER} when there is a next page
+     */
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.set(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return headers;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row, if any, only tells that
+     * there is a next page and is not returned.
+     *
+     * @param rows     the fetched rows, in page order
+     * @param limit    the page size
+     * @param cursorOf builds the cursor pointing after a row
+     * @param mapper   converts a row to the returned item
+     */
+    public static <E, T> KeysetPage<T> of(List<E> rows, int limit, Function<E, KeysetCursor> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(limit - 1)).encode() : null;
+        return new KeysetPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,175 @@
+package persistence.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import entities.business.Film.Film;
+import entities.business.genre.Genre;
+import entities.business.pays.Pays;
+import persistence.specification.FilmSpecifications;
+import web.model.dto.FilmDTO;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the SQL statements of the film reads on H2, so that the number of selects of each use case
+ * (list, detail, import) does not grow with the number of films.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class FilmFetchPlanTest {
+
+    @Configuration
+    @EntityScan(basePackages = "entities.business")
+    @EnableJpaRepositories(basePackages = "persistence.repository")
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private IFilmRepository filmRepository;
+
+    @Autowired
+    private IGenreRepository genreRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Persists films with a country and a genre of their own, then starts counting from an empty persistence context
+    private List<Long> persistFilms(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Pays pays = entityManager.persist(new Pays(null, "Pays " + i));
+            Genre genre = new Genre();
+            genre.setName("Genre " + i);
+            entityManager.persist(genre);
+            Film film = new Film();
+            film.setImdb("tt" + i);
+            film.setNom("Film " + i);
+            film.setAnnee("1922");
+            film.setRating("7,5");
+            film.setLangue("English");
+            film.setResume("Summary " + i);
+            film.setPays(pays);
+            film.getGenresl().add(genre);
+            ids.add(entityManager.persist(film).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        return ids;
+    }
+
+    // Maps the films like the API does, reading every country
+    private static void toDTOs(List<Film> films) {
+        for (Film film : films) {
+            assertNotNull(FilmDTO.fromEntity(film).getPays().getName());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void testListByName_OneStatement(int count) {
+        persistFilms(count);
+
+        List<Film> films = filmRepository.findByNomContainingIgnoreCase("film");
+        toDTOs(films);
+
+        assertEquals(count, films.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void testListBySpecification_OneStatement(int count) {
+        persistFilms(count);
+
+        List<Film> films = filmRepository.findBy(FilmSpecifications.nomContains("film"),
+                query -> query.project("pays").sortBy(Sort.by("id")).limit(50).all());
+        toDTOs(films);
+
+        assertEquals(count, films.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void testListByIds_OneStatement(int count) {
+        List<Long> ids = persistFilms(count);
+
+        List<Film> films = filmRepository.findWithPaysByIdIn(ids);
+        toDTOs(films);
+
+        assertEquals(count, films.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testDetail_OneStatement() {
+        persistFilms(3);
+
+        Film film = filmRepository.findWithPaysByImdb("tt1").orElseThrow();
+
+        assertEquals("Pays 1", film.getPays().getName());
+        assertFalse(Hibernate.isInitialized(film.getGenresl()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUpdate_DTOKeepsTheCountryAfterTheContextIsClosed() {
+        List<Long> ids = persistFilms(1);
+
+        // Same steps as FilmService.updateFilm: read with the graph, change, save and map in one transaction
+        Film film = filmRepository.findWithPaysById(ids.get(0)).orElseThrow();
+        film.setNom("Renamed");
+        FilmDTO dto = FilmDTO.fromEntity(filmRepository.save(film));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(Pays.class, dto.getPays().getClass());
+        assertEquals("Pays 0", dto.getPays().getName());
+    }
+
+    @Test
+    void testImport_LoadsNoAssociation() {
+        persistFilms(3);
+
+        Film film = filmRepository.findByImdb("tt1").orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(film.getPays()));
+        assertFalse(Hibernate.isInitialized(film.getGenresl()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGenres_DoNotLoadTheirFilms() {
+        persistFilms(25);
+
+        List<Genre> genres = genreRepository.findAll();
+
+        assertEquals(25, genres.size());
+        genres.forEach(genre -> assertFalse(Hibernate.isInitialized(genre.getFilms())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,87 @@
+package persistence.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import entities.business.Film.Film;
+import persistence.specification.FilmSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks the films one keyset page at a time on H2, sorted by the numeric rating, to check that every
+ * film is returned exactly once and in numeric order, films without a numeric rating included.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class FilmKeysetPaginationTest {
+
+    @Configuration
+    @EntityScan(basePackages = "entities.business")
+    @EnableJpaRepositories(basePackages = "persistence.repository")
+    static class JpaTestConfig {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private IFilmRepository filmRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Persisted in an order that differs from both the text and the numeric order
+        List<String> ratings = List.of("9,1", "n/a", "10", "7.5", "9,1", "n/a");
+        for (int i = 0; i < ratings.size(); i++) {
+            String rating = ratings.get(i);
+            Film film = new Film();
+            film.setImdb("tt" + i);
+            film.setNom("Film " + i);
+            film.setAnnee("1922");
+            film.setRating(rating);
+            film.setLangue("English");
+            film.setResume("Summary");
+            entityManager.persist(film);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Reads every page of one film, passing the last film of each page as the cursor of the next one
+    private List<String> walk(boolean ascending) {
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, "ratingValue").and(Sort.by("id"));
+        List<String> ratings = new ArrayList<>();
+        Film last = null;
+        while (true) {
+            Specification<Film> specification = last == null ? null
+                    : FilmSpecifications.after("ratingValue", ascending, last.getRatingValue(), last.getId());
+            List<Film> page = filmRepository.findBy(Specification.where(specification), query -> query.sortBy(sort).limit(1).all());
+            if (page.isEmpty()) {
+                return ratings;
+            }
+            last = page.get(0);
+            ratings.add(last.getRating());
+        }
+    }
+
+    @Test
+    void testAscending() {
+        assertEquals(List.of("n/a", "n/a", "7.5", "9,1", "9,1", "10"), walk(true));
+    }
+
+    @Test
+    void testDescending() {
+        assertEquals(List.of("10", "9,1", "9,1", "7.5", "n/a", "n/a"), walk(false));
+    }
+}
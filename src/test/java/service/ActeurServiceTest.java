@@ -8,7 +8,11 @@ import entities.business.personne.Acteur;
 import entities.business.personne.Personne;
 import persistence.repository.IActeurRepository;
 import persistence.repository.IPersonneRepository;
+import persistence.repository.IRoleRepository;
+import service.graph.CoStarGraph;
 import web.model.dto.ActeurDTO;
+import web.model.dto.CoStar;
+import web.model.dto.FilmographyEntry;
 import web.model.dto.PersonneDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,7 +22,12 @@ import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 
 import exceptions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 public class ActeurServiceTest {
 
@@ -31,6 +40,12 @@ public class ActeurServiceTest {
     @Mock
     private IPersonneRepository personneRepository;
 
+    @Mock
+    private IRoleRepository roleRepository;
+
+    @Mock
+    private CoStarGraph coStarGraph;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -171,4 +186,75 @@ public class ActeurServiceTest {
         assertEquals("Database error", thrown.getMessage());
         verify(acteurRepository, times(1)).deleteById(1L);
     }
+
+    @Test
+    void testFindFilmography_GroupsRolesByFilm() {
+        // Arrange
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{2L, "tt0032138", "The Wizard of Oz", "1939", "8,1", "Hunk"});
+        rows.add(new Object[]{2L, "tt0032138", "The Wizard of Oz", "1939", "8,1", "Scarecrow"});
+        rows.add(new Object[]{1L, "tt0026138", "The Bride", "1935", "7,8", "Karl"});
+        when(roleRepository.findFilmographyRows("nm0001033")).thenReturn(rows);
+
+        // Act
+        List<FilmographyEntry> films = acteurService.findFilmography("nm0001033");
+
+        // Assert
+        assertEquals(2, films.size());
+        assertEquals("tt0032138", films.get(0).imdb());
+        assertEquals(List.of("Hunk", "Scarecrow"), films.get(0).roleNames());
+        assertEquals(List.of("Karl"), films.get(1).roleNames());
+        verify(acteurRepository, never()).findByImdb(anyString());
+    }
+
+    @Test
+    void testFindFilmography_UnknownActeur() {
+        // Arrange
+        when(roleRepository.findFilmographyRows("nm0000000")).thenReturn(List.of());
+        when(acteurRepository.findByImdb("nm0000000")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> acteurService.findFilmography("nm0000000"));
+    }
+
+    @Test
+    void testFindCoStars_RankedAndLimited() {
+        Acteur acteur = new Acteur();
+        acteur.setIdImdb("nm0000003");
+        Personne personne = new Personne();
+        personne.setIdentite("Ray Bolger");
+        acteur.setPersonne(personne);
+        when(coStarGraph.sharedFilms("nm0000001")).thenReturn(Map.of(
+                "nm0000002", new TreeSet<>(List.of("tt0000002")),
+                "nm0000003", new TreeSet<>(List.of("tt0000002", "tt0000001")),
+                "nm0000004", new TreeSet<>(List.of("tt0000001"))));
+        when(acteurRepository.findWithPersonneByImdbIn(List.of("nm0000003", "nm0000002"))).thenReturn(List.of(acteur));
+
+        List<CoStar> coStars = acteurService.findCoStars("nm0000001", 2);
+
+        assertEquals(List.of(
+                new CoStar("nm0000003", "Ray Bolger", 2, List.of("tt0000001", "tt0000002")),
+                new CoStar("nm0000002", null, 1, List.of("tt0000002"))), coStars);
+        verify(roleRepository, never()).findCoStarRows(any());
+    }
+
+    @Test
+    void testFindCoStars_GraphNotBuilt() {
+        when(coStarGraph.sharedFilms("nm0000001")).thenReturn(null);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"nm0000002", "tt0000002"});
+        rows.add(new Object[]{"nm0000002", "tt0000002"});
+        when(roleRepository.findCoStarRows("nm0000001")).thenReturn(rows);
+        when(acteurRepository.findWithPersonneByImdbIn(List.of("nm0000002"))).thenReturn(List.of());
+
+        assertEquals(List.of(new CoStar("nm0000002", null, 1, List.of("tt0000002"))), acteurService.findCoStars("nm0000001", 20));
+    }
+
+    @Test
+    void testFindCoStars_ActeurNotFound() {
+        when(coStarGraph.sharedFilms("nm0000000")).thenReturn(Map.<String, SortedSet<String>>of());
+        when(acteurRepository.findByImdb("nm0000000")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> acteurService.findCoStars("nm0000000", 20));
+    }
 }
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -23,6 +24,9 @@ public class CastingPrincipalServiceTest {
     @Mock
     private ICastingPrincipalRepository castingPrincipalRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -56,6 +60,7 @@ public class CastingPrincipalServiceTest {
 
         castingPrincipalService.createCasting(castingPrincipalDTO);
         verify(castingPrincipalRepository, times(1)).save(any(CastingPrincipal.class));
+        verify(eventPublisher).publishEvent(new RoleChangedEvent("film1", "acteur1", false));
     }
 
     @Test
@@ -73,6 +78,8 @@ public class CastingPrincipalServiceTest {
 
         castingPrincipalService.updateCasting(1L, castingPrincipalDTO);
         verify(castingPrincipalRepository, times(1)).save(any(CastingPrincipal.class));
+        verify(eventPublisher).publishEvent(new RoleChangedEvent("film1", "acteur1", true));
+        verify(eventPublisher).publishEvent(new RoleChangedEvent("film1", "acteur1", false));
     }
 
     @Test
@@ -81,5 +88,6 @@ public class CastingPrincipalServiceTest {
 
         castingPrincipalService.deleteCastingByFilmAndActeur("film1", "acteur1");
         verify(castingPrincipalRepository, times(1)).deleteByFilmIdAndActeurId("film1", "acteur1");
+        verify(eventPublisher).publishEvent(new RoleChangedEvent("film1", "acteur1", true));
     }
 }
\ No newline at end of file
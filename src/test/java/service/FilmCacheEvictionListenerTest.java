@@ -0,0 +1,144 @@
+package service;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import entities.business.Film.Film;
+import utilities.database.DataImportCompletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class FilmCacheEvictionListenerTest {
+
+    @InjectMocks
+    private FilmCacheEvictionListener listener;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache filmsByImdb;
+
+    @Mock
+    private Cache filmSearchIds;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(cacheManager.getCache(FilmCaches.FILMS_BY_IMDB)).thenReturn(filmsByImdb);
+        when(cacheManager.getCache(FilmCaches.FILM_SEARCH_IDS)).thenReturn(filmSearchIds);
+    }
+
+    @Test
+    void testOnFilmChanged_EvictsTheFilm() {
+        listener.onFilmChanged(new FilmChangedEvent(1L, "tt0014137", new Film()));
+
+        verify(filmsByImdb).evict("tt0014137");
+        verify(filmsByImdb, never()).clear();
+        verify(filmSearchIds).clear();
+    }
+
+    @Test
+    void testOnDataImportCompleted_ClearsTheCache() {
+        listener.onDataImportCompleted(new DataImportCompletedEvent(true));
+
+        verify(filmsByImdb).clear();
+        verify(filmSearchIds).clear();
+    }
+
+    // The listener in a context where transactional event listeners run as in the application
+    private AnnotationConfigApplicationContext transactionalContext() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(CacheManager.class, () -> cacheManager);
+        context.register(TransactionConfig.class, FilmCacheEvictionListener.class);
+        context.refresh();
+        return context;
+    }
+
+    @Test
+    void testOnFilmChanged_EvictsTheFilmOnceCommitted() {
+        try (AnnotationConfigApplicationContext context = transactionalContext()) {
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            // Rolled back: the cached film is still the stored one
+            transaction.executeWithoutResult(status -> {
+                context.publishEvent(new FilmChangedEvent(1L, "tt0014137", new Film()));
+                status.setRollbackOnly();
+            });
+            verify(filmsByImdb, never()).evict(any());
+
+            // Committed: evicted after the commit, not while the transaction may still be read
+            transaction.executeWithoutResult(status -> {
+                context.publishEvent(new FilmChangedEvent(1L, "tt0014137", new Film()));
+                verify(filmsByImdb, never()).evict(any());
+            });
+            verify(filmsByImdb).evict("tt0014137");
+
+            // Published outside a transaction: evicted right away
+            context.publishEvent(new FilmChangedEvent(2L, "tt0000002", null));
+            verify(filmsByImdb).evict("tt0000002");
+        }
+    }
+
+    @Test
+    void testOnFilmChanged_ClearsTheSearchesOnceCommitted() {
+        try (AnnotationConfigApplicationContext context = transactionalContext()) {
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            transaction.executeWithoutResult(status -> {
+                context.publishEvent(new FilmChangedEvent(1L, "tt0014137", new Film()));
+                status.setRollbackOnly();
+            });
+            verify(filmSearchIds, never()).clear();
+
+            // Committed: cleared after the commit, not while searches may still read the previous rows
+            transaction.executeWithoutResult(status -> {
+                context.publishEvent(new FilmChangedEvent(1L, "tt0014137", new Film()));
+                verify(filmSearchIds, never()).clear();
+            });
+            verify(filmSearchIds).clear();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            // No resource behind the transactions, only their synchronization as with the JPA transaction manager
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+    }
+}
@@ -1,15 +1,42 @@
 package service;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 
 import entities.business.Film.Film;
+import entities.business.personne.Acteur;
+import entities.business.personne.Personne;
+import entities.business.role.Role;
+import exceptions.EntityNotFoundException;
+import exceptions.InvalidDataException;
+import persistence.repository.IActeurRepository;
+import persistence.repository.ICastingPrincipalRepository;
 import persistence.repository.IFilmRepository;
+import persistence.repository.IRoleRepository;
+import service.search.FilmGenreIndex;
+import service.search.FilmTextIndex;
+import web.model.dto.CastMember;
+import web.model.dto.FilmDTO;
+import web.model.dto.FilmSearchCriteria;
+import web.model.dto.FilmSummary;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 public class FilmServiceTest {
 
@@ -19,11 +46,61 @@ public class FilmServiceTest {
     @Mock
     private IFilmRepository filmRepository;
 
+    @Mock
+    private FilmTextIndex filmTextIndex;
+
+    @Mock
+    private FilmGenreIndex filmGenreIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private IRoleRepository roleRepository;
+
+    @Mock
+    private ICastingPrincipalRepository castingPrincipalRepository;
+
+    @Mock
+    private IActeurRepository acteurRepository;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindCast_PrincipalCastFirst() {
+        when(roleRepository.findByFilmIdOrderById("tt0032138")).thenReturn(List.of(
+                new Role("Hunk", "tt0032138", "nm0001033"),
+                new Role("Dorothy", "tt0032138", "nm0000023"),
+                new Role("Scarecrow", "tt0032138", "nm0001033")));
+        when(castingPrincipalRepository.findActeurIdsByFilmId("tt0032138")).thenReturn(List.of("nm0000023"));
+        Acteur judy = new Acteur("nm0000023", null);
+        judy.setPersonne(new Personne("Judy Garland", null, null, null));
+        when(acteurRepository.findWithPersonneByImdbIn(any(List.class))).thenReturn(List.of(judy));
+
+        List<CastMember> cast = filmService.findCast("tt0032138");
+
+        assertEquals(List.of(
+                new CastMember("nm0000023", "Judy Garland", null, true, List.of("Dorothy")),
+                new CastMember("nm0001033", null, null, false, List.of("Hunk", "Scarecrow"))), cast);
+        verify(acteurRepository, times(1)).findWithPersonneByImdbIn(any(List.class));
+    }
+
+    @Test
+    void testFindCast_UnknownFilm() {
+        when(roleRepository.findByFilmIdOrderById("tt0000000")).thenReturn(List.of());
+        when(castingPrincipalRepository.findActeurIdsByFilmId("tt0000000")).thenReturn(List.of());
+        when(filmRepository.existsByImdb("tt0000000")).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> filmService.findCast("tt0000000"));
+    }
+
     @Test
     void testSave() {
         Film film = new Film();
@@ -32,4 +109,231 @@ public class FilmServiceTest {
         filmService.save(film); // Adjusted to match the return type of the save method
         verify(filmRepository, times(1)).saveAndFlush(film);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindFilmsByName_UsesTextIndex() {
+        Film first = new Film();
+        first.setId(1L);
+        Film second = new Film();
+        second.setId(2L);
+        when(filmTextIndex.findByName("nanook")).thenReturn(List.of(1L, 2L));
+        when(filmRepository.findWithPaysByIdIn(List.of(1L, 2L))).thenReturn(List.of(second, first));
+
+        List<FilmDTO> result = filmService.findFilmsByName("nanook");
+
+        assertEquals(List.of(1L, 2L), result.stream().map(FilmDTO::getId).toList());
+        verify(filmRepository, never()).findBy(any(Specification.class), any(Function.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmsByName_FallsBackToDatabaseWithWordPrefixes() {
+        Film nanook = new Film();
+        nanook.setId(1L);
+        nanook.setNom("Nanook of the North");
+        Film minor = new Film();
+        minor.setId(2L);
+        minor.setNom("Nanook Minor");
+        when(filmTextIndex.findByName("nanook nor")).thenReturn(null);
+        // Rows of the LIKE query: a word contained in the name is not enough, it must start one of its words
+        when(filmRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(nanook, minor));
+
+        assertEquals(List.of(1L), filmService.findFilmsByName("nanook nor").stream().map(FilmDTO::getId).toList());
+    }
+
+    @Test
+    void testSearchFullText_BlankQuery() {
+        assertThrows(InvalidDataException.class, () -> filmService.searchFullText(" ", 20));
+    }
+
+    @Test
+    void testDeleteFilm_PublishesChange() {
+        Film film = new Film();
+        film.setId(1L);
+        film.setImdb("tt0014137");
+        when(filmRepository.findById(1L)).thenReturn(Optional.of(film));
+
+        filmService.deleteFilm(1L);
+
+        verify(eventPublisher).publishEvent(new FilmChangedEvent(1L, "tt0014137", null));
+    }
+
+    @Test
+    void testExistsByImdb() {
+        when(filmRepository.existsByImdb("tt0014137")).thenReturn(true);
+
+        assertTrue(filmService.existsByImdb("tt0014137"));
+        verify(filmRepository, never()).findByImdb("tt0014137");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmsWithFiltersAndSorting() {
+        Film film = new Film();
+        film.setImdb("tt0014137");
+        film.setNom("Nanook of the North");
+        when(filmRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(film));
+
+        FilmSearchCriteria criteria = criteria("nanook", "-rating");
+        criteria.setGenreName("Documentary");
+        KeysetPage<FilmDTO> result = filmService.findFilmsWithFiltersAndSorting(criteria, null, 50);
+
+        assertEquals(1, result.items().size());
+        assertNull(result.nextCursor());
+        verify(filmRepository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmsWithFiltersAndSorting_NoMatch() {
+        when(filmRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> filmService.findFilmsWithFiltersAndSorting(criteria("unknown", null), null, 50));
+    }
+
+    @Test
+    void testFindFilmsWithFiltersAndSorting_UnsupportedSort() {
+        assertThrows(IllegalArgumentException.class,
+                () -> filmService.findFilmsWithFiltersAndSorting(criteria(null, "resume"), null, 50));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmsWithFiltersAndSorting_NextCursor() {
+        Film first = new Film();
+        first.setId(1L);
+        first.setNom("A");
+        Film second = new Film();
+        second.setId(2L);
+        second.setNom("B");
+        when(filmRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(first, second));
+
+        KeysetPage<FilmDTO> result = filmService.findFilmsWithFiltersAndSorting(criteria(null, "nom"), null, 1);
+
+        assertEquals(1, result.items().size());
+        assertEquals(new KeysetCursor("nom", "A", 1L), KeysetCursor.decode(result.nextCursor(), "nom"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmsWithFiltersAndSorting_NumericRatingCursor() {
+        Film first = new Film();
+        first.setId(1L);
+        first.setRating("10");
+        first.setRatingValue(10.0);
+        Film second = new Film();
+        second.setId(2L);
+        second.setRating("9,1");
+        second.setRatingValue(9.1);
+        when(filmRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(first, second));
+
+        KeysetPage<FilmDTO> result = filmService.findFilmsWithFiltersAndSorting(criteria(null, "-rating"), null, 1);
+
+        assertEquals(new KeysetCursor("-rating", "10.0", 1L), KeysetCursor.decode(result.nextCursor(), "-rating"));
+    }
+
+    @Test
+    void testFindFilmsWithFiltersAndSorting_InvalidNumericCursor() {
+        String cursor = new KeysetCursor("annee", "1950–1952", 1L).encode();
+
+        assertThrows(InvalidDataException.class,
+                () -> filmService.findFilmsWithFiltersAndSorting(criteria(null, "annee"), cursor, 50));
+    }
+
+    @Test
+    void testFindFilmsWithFiltersAndSorting_CursorForAnotherSort() {
+        String cursor = new KeysetCursor("nom", "A", 1L).encode();
+
+        assertThrows(InvalidDataException.class,
+                () -> filmService.findFilmsWithFiltersAndSorting(criteria(null, "-rating"), cursor, 50));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmsWithFiltersAndSorting_GenresFromIndex() {
+        BitSet comedyDramas = new BitSet();
+        comedyDramas.set(7);
+        when(filmGenreIndex.match(List.of("comedy", "drama"), true)).thenReturn(comedyDramas);
+        Film film = new Film();
+        film.setId(7L);
+        when(filmRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(film));
+
+        FilmSearchCriteria criteria = criteria(null, null);
+        criteria.setGenreName("Drama, Comedy");
+        criteria.setGenreMode("all");
+        KeysetPage<FilmDTO> result = filmService.findFilmsWithFiltersAndSorting(criteria, null, 50);
+
+        assertEquals(1, result.items().size());
+        verify(filmGenreIndex).match(List.of("comedy", "drama"), true);
+    }
+
+    @Test
+    void testFindFilmsWithFiltersAndSorting_NoFilmOfTheGenres() {
+        when(filmGenreIndex.match(List.of("western"), false)).thenReturn(new BitSet());
+
+        FilmSearchCriteria criteria = criteria(null, null);
+        criteria.setGenreName("Western");
+        assertThrows(EntityNotFoundException.class, () -> filmService.findFilmsWithFiltersAndSorting(criteria, null, 50));
+        verifyNoInteractions(filmRepository);
+    }
+
+    @Test
+    void testFindFilmsWithFiltersAndSorting_UnsupportedGenreMode() {
+        FilmSearchCriteria criteria = criteria(null, null);
+        criteria.setGenreName("Western");
+        criteria.setGenreMode("none");
+        assertThrows(InvalidDataException.class, () -> filmService.findFilmsWithFiltersAndSorting(criteria, null, 50));
+    }
+
+    @Test
+    void testFindFilmsWithFiltersAndSorting_InvalidRange() {
+        FilmSearchCriteria criteria = criteria(null, null);
+        criteria.setMinRating(8.0);
+        criteria.setMaxRating(6.5);
+        assertThrows(InvalidDataException.class, () -> filmService.findFilmsWithFiltersAndSorting(criteria, null, 50));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmSummariesWithFiltersAndSorting() {
+        FilmSummary summary = new FilmSummary(1L, "tt0014137", "Nanook of the North", "1922", "7,5", "USA");
+        when(filmRepository.findSummaries(any(Specification.class), eq(Sort.by(Sort.Direction.ASC, "id")), eq(51)))
+                .thenReturn(List.of(summary));
+
+        KeysetPage<FilmSummary> result = filmService.findFilmSummariesWithFiltersAndSorting(criteria("nanook", null), null, 50);
+
+        assertEquals(List.of(summary), result.items());
+        verify(filmRepository, never()).findBy(any(Specification.class), any(Function.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindFilmSummariesWithFiltersAndSorting_RepeatedSearchUsesCachedIds() {
+        when(cacheManager.getCache(FilmCaches.FILM_SEARCH_IDS)).thenReturn(new ConcurrentMapCache(FilmCaches.FILM_SEARCH_IDS));
+        FilmSummary summary = new FilmSummary(1L, "tt0014137", "Nanook of the North", "1922", "7,5", "USA");
+        when(filmRepository.findSummaries(any(Specification.class), any(Sort.class), anyInt())).thenReturn(List.of(summary));
+
+        filmService.findFilmSummariesWithFiltersAndSorting(criteria("Nanook ", null), null, 50);
+        KeysetPage<FilmSummary> result = filmService.findFilmSummariesWithFiltersAndSorting(criteria("nanook", null), null, 50);
+
+        assertEquals(List.of(summary), result.items());
+        verify(filmRepository).findSummaries(any(Specification.class), any(Sort.class), eq(51));
+        verify(filmRepository).findSummaries(any(Specification.class), any(Sort.class), eq(1));
+    }
+
+    @Test
+    void testFindFilmSummariesByName_NoMatchInTextIndex() {
+        when(filmTextIndex.findByName("unknown")).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> filmService.findFilmSummariesByName("unknown"));
+        verifyNoInteractions(filmRepository);
+    }
+
+    private static FilmSearchCriteria criteria(String nom, String sortBy) {
+        FilmSearchCriteria criteria = new FilmSearchCriteria();
+        criteria.setNom(nom);
+        criteria.setSortBy(sortBy);
+        return criteria;
+    }
+}
@@ -12,6 +12,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
+
 public class GenreServiceTest {
 
     @InjectMocks
@@ -34,4 +36,40 @@ public class GenreServiceTest {
         assertNotNull(result);
         verify(genreRepository, times(1)).save(genre);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetSnapshot_CopiesTheGenres() {
+        Genre drama = Genre.builder().id(2L).name("Drama").build();
+        Genre comedy = Genre.builder().id(1L).name("Comedy").build();
+        when(genreRepository.findAll()).thenReturn(List.of(drama, comedy));
+
+        ReferenceSnapshot<Genre> snapshot = genreService.getSnapshot();
+        assertSame(snapshot, genreService.getSnapshot());
+        assertEquals(List.of(1L, 2L), snapshot.items().stream().map(Genre::getId).toList());
+        assertEquals(List.of("Comedy", "Drama"), snapshot.items().stream().map(Genre::getName).toList());
+        // The snapshot outlives the persistence context, it never holds the loaded entities
+        assertNotSame(comedy, snapshot.items().get(0));
+        assertNotSame(drama, snapshot.items().get(1));
+
+        Genre western = Genre.builder().id(3L).name("Western").build();
+        when(genreRepository.save(western)).thenReturn(western);
+        genreService.save(western);
+        when(genreRepository.findAll()).thenReturn(List.of(drama, comedy, western));
+
+        ReferenceSnapshot<Genre> reloaded = genreService.getSnapshot();
+        assertEquals(3, reloaded.items().size());
+        assertNotEquals(snapshot.etag(), reloaded.etag());
+    }
+
+    @Test
+    void testFindAllWithoutFilms() {
+        List<Object[]> rows = List.of(new Object[]{1L, "Comedy"}, new Object[]{2L, "Drama"});
+        when(genreRepository.findAllIdAndName()).thenReturn(rows);
+
+        List<Genre> result = genreService.findAllWithoutFilms();
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId().longValue());
+        assertEquals("Drama", result.get(1).getName());
+        verify(genreRepository, never()).findAll();
+    }
+}
@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
 import java.util.Optional;
 
 public class PaysServiceTest {
@@ -47,4 +48,23 @@ public class PaysServiceTest {
         assertNotNull(result);
         verify(paysRepository, times(1)).save(pays);
     }
+
+    @Test
+    void testGetSnapshot_ReloadedAfterSave() {
+        when(paysRepository.findAll()).thenReturn(List.of(new Pays(2L, "Germany"), new Pays(1L, "France")));
+
+        ReferenceSnapshot<Pays> snapshot = paysService.getSnapshot();
+        assertSame(snapshot, paysService.getSnapshot());
+        assertEquals(List.of(1L, 2L), snapshot.items().stream().map(Pays::getId).toList());
+        verify(paysRepository, times(1)).findAll();
+
+        Pays pays = new Pays(3L, "Italy");
+        when(paysRepository.save(pays)).thenReturn(pays);
+        paysService.save(pays);
+        when(paysRepository.findAll()).thenReturn(List.of(new Pays(1L, "France"), new Pays(2L, "Germany"), pays));
+
+        ReferenceSnapshot<Pays> reloaded = paysService.getSnapshot();
+        assertEquals(3, reloaded.items().size());
+        assertNotEquals(snapshot.etag(), reloaded.etag());
+    }
 }
@@ -6,15 +6,22 @@ import static org.mockito.Mockito.*;
 
 import entities.business.role.Role;
 import persistence.repository.IRoleRepository;
+import exceptions.EntityNotFoundException;
 import web.model.dto.RoleDTO;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 public class RoleServiceTest {
 
@@ -24,11 +31,39 @@ public class RoleServiceTest {
     @Mock
     private IRoleRepository roleRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindRolesWithFilters_Paged() {
+        Role first = new Role("Nanook", "tt0013427", "nm0000001");
+        first.setId(1L);
+        Role second = new Role("Nyla", "tt0013427", "nm0000002");
+        second.setId(2L);
+        when(roleRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(first, second));
+
+        KeysetPage<RoleDTO> page = roleService.findRolesWithFilters(null, "tt0013427", null, null, 1);
+
+        assertEquals(List.of("Nanook"), page.items().stream().map(RoleDTO::getRoleName).toList());
+        assertEquals(KeysetCursor.ofId(1L).encode(), page.nextCursor());
+        verify(roleRepository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindRolesWithFilters_NotFound() {
+        when(roleRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> roleService.findRolesWithFilters("nobody", null, null, null, 50));
+    }
+
     @Test
     void testCreateRole() {
         Role role = new Role();
@@ -43,6 +78,7 @@ public class RoleServiceTest {
         assertNotNull(result);
         assertEquals("Admin", result.getRoleName());
         verify(roleRepository, times(1)).save(any(Role.class));
+        verify(eventPublisher).publishEvent(new RoleChangedEvent(null, null, false));
     }
 
     @Test
@@ -69,5 +105,6 @@ public class RoleServiceTest {
 
         roleService.deleteRole(1L);
         verify(roleRepository, times(1)).delete(role);
+        verify(eventPublisher).publishEvent(new RoleChangedEvent(null, null, true));
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package service.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import persistence.repository.ICastingPrincipalRepository;
+import persistence.repository.IRoleRepository;
+import service.RoleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CoStarGraphTest {
+
+    @InjectMocks
+    private CoStarGraph coStarGraph;
+
+    @Mock
+    private IRoleRepository roleRepository;
+
+    @Mock
+    private ICastingPrincipalRepository castingPrincipalRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Object[]> roles = new ArrayList<>();
+        roles.add(new Object[]{1L, "tt0000002", "nm0000001"});
+        roles.add(new Object[]{2L, "tt0000002", "nm0000001"});
+        roles.add(new Object[]{3L, "tt0000002", "nm0000002"});
+        roles.add(new Object[]{4L, "tt0000001", "nm0000003"});
+        List<Object[]> principals = new ArrayList<>();
+        principals.add(new Object[]{1L, "tt0000001", "nm0000001"});
+        principals.add(new Object[]{2L, "tt0000002", "nm0000003"});
+        principals.add(new Object[]{3L, "tt0000003", null});
+        when(roleRepository.findLinksAfter(eq(0L), any(Pageable.class))).thenReturn(roles);
+        when(castingPrincipalRepository.findLinksAfter(eq(0L), any(Pageable.class))).thenReturn(principals);
+        coStarGraph.rebuild();
+    }
+
+    @Test
+    void testSharedFilms_NotBuilt() {
+        assertNull(new CoStarGraph().sharedFilms("nm0000001"));
+    }
+
+    @Test
+    void testSharedFilms() {
+        assertEquals(Map.of("nm0000002", Set.of("tt0000002"), "nm0000003", Set.of("tt0000001", "tt0000002")),
+                coStarGraph.sharedFilms("nm0000001"));
+        assertEquals(Map.of("nm0000001", Set.of("tt0000002"), "nm0000003", Set.of("tt0000002")),
+                coStarGraph.sharedFilms("nm0000002"));
+        assertTrue(coStarGraph.sharedFilms("nm9999999").isEmpty());
+    }
+
+    @Test
+    void testRoleChanges() {
+        coStarGraph.onRoleChanged(new RoleChangedEvent("tt0000004", "nm0000002", false));
+        coStarGraph.onRoleChanged(new RoleChangedEvent("tt0000004", "nm0000004", false));
+        coStarGraph.onRoleChanged(new RoleChangedEvent("tt0000001", "nm0000004", false));
+        coStarGraph.onRoleChanged(new RoleChangedEvent("tt0000002", "nm0000002", true));
+
+        assertEquals(Map.of("nm0000004", Set.of("tt0000004")), coStarGraph.sharedFilms("nm0000002"));
+        assertEquals(Map.of("nm0000001", Set.of("tt0000001"), "nm0000002", Set.of("tt0000004"), "nm0000003", Set.of("tt0000001")),
+                coStarGraph.sharedFilms("nm0000004"));
+    }
+
+    @Test
+    void testRoleDeleted_OtherRoleKeepsTheLink() {
+        when(roleRepository.existsByFilmIdAndActeurId("tt0000002", "nm0000001")).thenReturn(true);
+
+        coStarGraph.onRoleChanged(new RoleChangedEvent("tt0000002", "nm0000001", true));
+
+        assertEquals(Set.of("tt0000002"), coStarGraph.sharedFilms("nm0000002").get("nm0000001"));
+    }
+
+    @Test
+    void testRoleChanges_DuringTheFirstBuildAreKept() {
+        CoStarGraph notBuilt = new CoStarGraph();
+        ReflectionTestUtils.setField(notBuilt, "roleRepository", roleRepository);
+        ReflectionTestUtils.setField(notBuilt, "castingPrincipalRepository", castingPrincipalRepository);
+        List<Object[]> roles = new ArrayList<>();
+        roles.add(new Object[]{1L, "tt0000002", "nm0000001"});
+        roles.add(new Object[]{2L, "tt0000002", "nm0000002"});
+        roles.add(new Object[]{3L, "tt0000001", "nm0000003"});
+        // The roles are written through the API while the table is being read
+        when(roleRepository.findLinksAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            notBuilt.onRoleChanged(new RoleChangedEvent("tt0000001", "nm0000002", false));
+            notBuilt.onRoleChanged(new RoleChangedEvent("tt0000002", "nm0000002", true));
+            return roles;
+        });
+
+        notBuilt.rebuild();
+
+        assertEquals(Map.of("nm0000001", Set.of("tt0000001"), "nm0000003", Set.of("tt0000001")),
+                notBuilt.sharedFilms("nm0000002"));
+    }
+}
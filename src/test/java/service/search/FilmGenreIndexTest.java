@@ -0,0 +1,94 @@
+package service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import entities.business.Film.Film;
+import persistence.repository.IFilmRepository;
+import service.FilmChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class FilmGenreIndexTest {
+
+    @InjectMocks
+    private FilmGenreIndex filmGenreIndex;
+
+    @Mock
+    private IFilmRepository filmRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Comedy,Drama"});
+        rows.add(new Object[]{2L, "Drama, Romance"});
+        rows.add(new Object[]{3L, "Comedy"});
+        rows.add(new Object[]{4L, null});
+        when(filmRepository.findGenresAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        filmGenreIndex.rebuild();
+    }
+
+    @Test
+    void testMatch_NotBuilt() {
+        assertNull(new FilmGenreIndex().match(List.of("Drama"), false));
+    }
+
+    @Test
+    void testMatch_AllAndAny() {
+        assertEquals(BitSet.valueOf(new long[]{0b0010}), filmGenreIndex.match(List.of("comedy", "DRAMA"), true));
+        assertEquals(BitSet.valueOf(new long[]{0b1110}), filmGenreIndex.match(List.of("Comedy", "Drama"), false));
+        assertEquals(BitSet.valueOf(new long[]{0b0100}), filmGenreIndex.match(List.of("Romance"), true));
+        assertTrue(filmGenreIndex.match(List.of("Comedy", "Western"), true).isEmpty());
+    }
+
+    @Test
+    void testMatch_DoesNotExposeTheIndex() {
+        filmGenreIndex.match(List.of("Comedy"), false).clear();
+
+        assertEquals(2, filmGenreIndex.match(List.of("Comedy"), false).cardinality());
+    }
+
+    @Test
+    void testFilmChanges() {
+        Film film = new Film();
+        film.setId(3L);
+        film.setGenres("Western");
+        filmGenreIndex.onFilmChanged(new FilmChangedEvent(3L, null, film));
+        filmGenreIndex.onFilmChanged(new FilmChangedEvent(1L, null, null));
+
+        assertTrue(filmGenreIndex.match(List.of("Comedy"), false).isEmpty());
+        assertEquals(BitSet.valueOf(new long[]{0b1000}), filmGenreIndex.match(List.of("Western"), false));
+    }
+
+    @Test
+    void testFilmChangesDuringRebuild() {
+        Film film = new Film();
+        film.setId(5L);
+        film.setGenres("Western");
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Comedy"});
+        rows.add(new Object[]{3L, "Comedy"});
+        // The films are written through the API while the table is being read
+        when(filmRepository.findGenresAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            filmGenreIndex.onFilmChanged(new FilmChangedEvent(5L, null, film));
+            filmGenreIndex.onFilmChanged(new FilmChangedEvent(3L, null, null));
+            return rows;
+        });
+
+        filmGenreIndex.rebuild();
+
+        assertEquals(BitSet.valueOf(new long[]{0b000010}), filmGenreIndex.match(List.of("Comedy"), false));
+        assertEquals(BitSet.valueOf(new long[]{0b100000}), filmGenreIndex.match(List.of("Western"), false));
+    }
+}
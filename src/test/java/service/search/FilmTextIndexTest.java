@@ -0,0 +1,111 @@
+package service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import entities.business.Film.Film;
+import persistence.repository.IFilmRepository;
+import service.FilmChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FilmTextIndexTest {
+
+    @InjectMocks
+    private FilmTextIndex filmTextIndex;
+
+    @Mock
+    private IFilmRepository filmRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Nanook of the North", "Canada", "Life of an Inuk family in the Arctic"});
+        rows.add(new Object[]{2L, "Le Fabuleux Destin d'Amélie Poulain", "Paris, France", "A shy waitress in Montmartre"});
+        rows.add(new Object[]{3L, "North by Northwest", "New York", "A man is mistaken for a spy"});
+        when(filmRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        filmTextIndex.rebuild();
+    }
+
+    @Test
+    void testFindByName_NotBuilt() {
+        assertNull(new FilmTextIndex().findByName("north"));
+    }
+
+    @Test
+    void testFindByName_PrefixOfEveryWord() {
+        assertEquals(List.of(1L, 3L), filmTextIndex.findByName("north"));
+        assertEquals(List.of(1L), filmTextIndex.findByName("NAN nor"));
+        assertEquals(List.of(), filmTextIndex.findByName("south"));
+    }
+
+    @Test
+    void testFindByName_IgnoresAccents() {
+        assertEquals(List.of(2L), filmTextIndex.findByName("amelie"));
+        assertEquals(List.of(2L), filmTextIndex.findByName("Amélie"));
+    }
+
+    @Test
+    void testSearch_RanksNameMatchesFirst() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Arctic", "Canada", "Winter"});
+        rows.add(new Object[]{2L, "Winter", "Canada", "In the arctic"});
+        when(filmRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        filmTextIndex.rebuild();
+
+        assertEquals(List.of(1L, 2L), filmTextIndex.search("arctic", 10));
+        assertEquals(List.of(2L, 1L), filmTextIndex.search("winter", 10));
+        assertEquals(List.of(2L), filmTextIndex.search("winter", 1));
+    }
+
+    @Test
+    void testSearch_EveryWordMustMatch() {
+        assertEquals(List.of(2L), filmTextIndex.search("paris waitress", 10));
+        assertEquals(List.of(), filmTextIndex.search("paris spy", 10));
+    }
+
+    @Test
+    void testFilmChanges_AreSearchableBeforeRebuild() {
+        Film film = new Film();
+        film.setId(4L);
+        film.setNom("Northern Lights");
+        filmTextIndex.onFilmChanged(new FilmChangedEvent(4L, null, film));
+        filmTextIndex.onFilmChanged(new FilmChangedEvent(3L, null, null));
+
+        assertEquals(List.of(1L, 4L), filmTextIndex.findByName("north"));
+        assertEquals(List.of(4L), filmTextIndex.search("lights", 10));
+    }
+
+    @Test
+    void testFilmChanges_DuringTheFirstBuildAreKept() {
+        FilmTextIndex notBuilt = new FilmTextIndex();
+        ReflectionTestUtils.setField(notBuilt, "filmRepository", filmRepository);
+        Film film = new Film();
+        film.setId(4L);
+        film.setNom("Northern Lights");
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Nanook of the North", "Canada", "Life of an Inuk family in the Arctic"});
+        rows.add(new Object[]{3L, "North by Northwest", "New York", "A man is mistaken for a spy"});
+        // The films are written through the API while the table is being read
+        when(filmRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            notBuilt.onFilmChanged(new FilmChangedEvent(4L, null, film));
+            notBuilt.onFilmChanged(new FilmChangedEvent(3L, null, null));
+            return rows;
+        });
+
+        notBuilt.rebuild();
+
+        assertEquals(List.of(1L, 4L), notBuilt.findByName("north"));
+    }
+}
@@ -0,0 +1,83 @@
+package utilities.csvextractors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import entities.business.personne.Acteur;
+import entities.business.personne.Personne;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import persistence.repository.IActeurRepository;
+import persistence.repository.IPersonneRepository;
+import utilities.database.ChunkedPersistence;
+import utilities.database.RowFingerprintStore;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public class ActorExtractorTest {
+
+    @InjectMocks
+    private ActorExtractor actorExtractor;
+
+    @Mock
+    private IActeurRepository acteurRepository;
+
+    @Mock
+    private IPersonneRepository personneRepository;
+
+    @Mock
+    private ChunkedPersistence chunkedPersistence;
+
+    @Mock
+    private RowFingerprintStore fingerprintStore;
+
+    @Mock
+    private ChunkedPersistence.ChunkedSession session;
+
+    private RowFingerprintStore.Fingerprints fingerprints;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(chunkedPersistence.open(anyString(), any(MappedCsvReader.class))).thenReturn(session);
+
+        // Fingerprints of an incremental import without any previous one
+        RowFingerprintStore store = new RowFingerprintStore();
+        ReflectionTestUtils.setField(store, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(store, "incremental", true);
+        fingerprints = store.load("acteurs");
+        when(fingerprintStore.load("acteurs")).thenReturn(fingerprints);
+    }
+
+    @Test
+    void testActorOfAnExistingPersonneIsFingerprinted(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("acteurs.csv");
+        Files.writeString(file, "ID;IDENTITE;DATE NAISSANCE;LIEU NAISSANCE;TAILLE;URL\n"
+                + "nm0000001;John Doe;1950-01-01;Paris;1.80 m;/name/nm0000001\n", StandardCharsets.UTF_8);
+        Personne personne = new Personne("John Doe", "1950-01-01", "Paris", "/name/nm0000001");
+        when(acteurRepository.findByImdb("nm0000001")).thenReturn(Optional.empty());
+        when(personneRepository.findByIdentiteAndDateNaissance("John Doe", "1950-01-01")).thenReturn(Optional.of(personne));
+        when(acteurRepository.findByPersonne(personne)).thenReturn(Optional.of(new Acteur("nm0000002", "1.80 m")));
+
+        actorExtractor.extractActorsFromCSV(file.toString());
+
+        // The row is skipped, but its hash is kept so that the next import does not look it up again
+        verify(session, never()).persist(any());
+        long contentHash;
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            reader.skipHeader();
+            contentHash = reader.next().contentHash();
+        }
+        assertTrue(fingerprints.isUnchanged("nm0000001", contentHash));
+    }
+}
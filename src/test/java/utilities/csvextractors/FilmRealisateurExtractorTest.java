@@ -0,0 +1,80 @@
+package utilities.csvextractors;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import utilities.database.ChunkedPersistence;
+import utilities.database.LocalInfileLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class FilmRealisateurExtractorTest {
+
+    private static final String INSERT = "INSERT IGNORE INTO film_realisateur (realisateur_id_imdb, film_imdb) VALUES (?, ?)";
+
+    @InjectMocks
+    private FilmRealisateurExtractor filmRealisateurExtractor;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ChunkedPersistence chunkedPersistence;
+
+    @Mock
+    private LocalInfileLoader localInfileLoader;
+
+    @Mock
+    private ChunkedPersistence.ChunkedSession session;
+
+    private String file;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws Exception {
+        MockitoAnnotations.openMocks(this);
+        Path path = dir.resolve("film_realisateurs.csv");
+        Files.writeString(path, "FILM;ID REALISATEUR\ntt0014137;nm0000001\ntt0014138;nm0000002\n", StandardCharsets.UTF_8);
+        file = path.toString();
+        when(chunkedPersistence.open(anyString(), any(MappedCsvReader.class))).thenReturn(session);
+        when(localInfileLoader.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void testLoadedFileIsNotImportedAgain() {
+        when(localInfileLoader.loadPairs(file, "film_realisateur", "film_imdb", "realisateur_id_imdb")).thenReturn(2L);
+
+        filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV(file);
+
+        verifyNoInteractions(jdbcTemplate, chunkedPersistence);
+    }
+
+    @Test
+    void testFailedLoadFallsBackToTheRowImport() {
+        when(localInfileLoader.loadPairs(file, "film_realisateur", "film_imdb", "realisateur_id_imdb")).thenReturn(-1L);
+
+        filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV(file);
+
+        verify(jdbcTemplate).update(INSERT, "nm0000001", "tt0014137");
+        verify(jdbcTemplate).update(INSERT, "nm0000002", "tt0014138");
+        verify(session, times(2)).completeRow();
+    }
+
+    @Test
+    void testDisabledLoaderUsesTheRowImport() {
+        when(localInfileLoader.isEnabled()).thenReturn(false);
+
+        filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV(file);
+
+        verify(localInfileLoader, never()).loadPairs(anyString(), anyString(), anyString(), anyString());
+        verify(jdbcTemplate, times(2)).update(eq(INSERT), anyString(), anyString());
+    }
+}
@@ -0,0 +1,80 @@
+package utilities.csvextractors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ImdbKeySetTest {
+
+    @Test
+    void testKeysOfTheImdbShape() {
+        List<String> keys = List.of("tt0014137", "nm0000481", "aa0", "zz999999999999", "tt000000000000", "tt1", "nm01");
+        ImdbKeySet set = ImdbKeySet.of(keys);
+
+        for (String key : keys) {
+            assertTrue(set.contains(key), key);
+            assertFalse(set.add(key), key);
+        }
+        assertEquals(keys.size(), set.size());
+    }
+
+    @Test
+    void testLeadingZerosAndPrefixAreSignificant() {
+        ImdbKeySet set = new ImdbKeySet();
+        for (String key : List.of("tt14137", "tt014137", "tt0014137", "nm0014137", "tn0014137", "nt0014137")) {
+            assertTrue(set.add(key), key);
+        }
+
+        assertFalse(set.contains("tt00014137"));
+        assertFalse(set.contains("aa0014137"));
+        assertEquals(6, set.size());
+    }
+
+    @Test
+    void testKeysOfOtherShapes() {
+        List<String> keys = List.of("", "t", "tt", "t1", "TT0014137", "tt0014137x", "tt12a4", "t10014137", "tt1234567890123", "é10014137");
+        ImdbKeySet set = new ImdbKeySet();
+        for (String key : keys) {
+            assertTrue(set.add(key), key);
+        }
+
+        for (String key : keys) {
+            assertTrue(set.contains(key), key);
+        }
+        // Close to an IMDb key without being one, and the other way round
+        assertFalse(set.contains("tt0014137"));
+        assertFalse(set.contains("tt123456789012"));
+        assertEquals(keys.size(), set.size());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        ImdbKeySet set = new ImdbKeySet();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(set.add(String.format("nm%07d", i)));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(set.add(String.format("nm%07d", i)));
+            assertTrue(set.contains(String.format("nm%07d", i)));
+        }
+        assertFalse(set.contains("nm0100000"));
+        assertFalse(set.contains("tt0000001"));
+        assertEquals(100_000, set.size());
+    }
+
+    @Test
+    void testOtherKeysAndNull() {
+        ImdbKeySet set = ImdbKeySet.of(List.of("tt0014137", "TT0014137", "tt1234567890123", "n/a"));
+
+        assertTrue(set.contains("TT0014137"));
+        assertTrue(set.contains("tt1234567890123"));
+        assertTrue(set.contains("n/a"));
+        assertFalse(set.contains("tt123456789012"));
+        assertFalse(set.add("n/a"));
+        assertFalse(set.add(null));
+        assertFalse(set.contains(null));
+        assertEquals(4, set.size());
+    }
+}
@@ -0,0 +1,119 @@
+package utilities.csvextractors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import utilities.database.ChunkedPersistence;
+import utilities.database.ImportCheckpointStore;
+import utilities.database.ImportProgress;
+import utilities.database.LocalInfileLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports the link files twice into an H2 database in MariaDB mode, with the unique keys that
+ * DatabaseInitializer adds to the link tables, to check that {@code INSERT IGNORE} skips the rows
+ * already stored instead of duplicating them or failing the chunk.
+ */
+public class LinkTableImportTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LocalInfileLoader localInfileLoader;
+    private ChunkedPersistence chunkedPersistence;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:links;MODE=MariaDB;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE role (id BIGINT AUTO_INCREMENT PRIMARY KEY, role_name VARCHAR(255), " +
+                "film_id VARCHAR(255), acteur_id VARCHAR(255), CONSTRAINT uk_role_film_acteur_name UNIQUE (film_id, acteur_id, role_name))");
+        jdbcTemplate.execute("CREATE TABLE film_acteur (id BIGINT AUTO_INCREMENT PRIMARY KEY, acteur_id_imdb VARCHAR(255), " +
+                "film_imdb VARCHAR(255), CONSTRAINT uk_film_acteur UNIQUE (film_imdb, acteur_id_imdb))");
+        jdbcTemplate.execute("CREATE TABLE casting_principal (id_casting BIGINT AUTO_INCREMENT PRIMARY KEY, film_id VARCHAR(255), " +
+                "acteur_id VARCHAR(255), CONSTRAINT uk_casting_film_acteur UNIQUE (film_id, acteur_id))");
+        jdbcTemplate.execute("CREATE TABLE film_realisateur (id BIGINT AUTO_INCREMENT PRIMARY KEY, realisateur_id_imdb VARCHAR(255), " +
+                "film_imdb VARCHAR(255), CONSTRAINT uk_film_realisateur UNIQUE (film_imdb, realisateur_id_imdb))");
+
+        // LOAD DATA is MariaDB only, the row by row import is used instead
+        localInfileLoader = mock(LocalInfileLoader.class);
+        chunkedPersistence = new ChunkedPersistence();
+        ReflectionTestUtils.setField(chunkedPersistence, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(chunkedPersistence, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(chunkedPersistence, "checkpointStore", mock(ImportCheckpointStore.class));
+        ReflectionTestUtils.setField(chunkedPersistence, "importProgress", new ImportProgress());
+        ReflectionTestUtils.setField(chunkedPersistence, "chunkSize", 2);
+        ReflectionTestUtils.setField(chunkedPersistence, "commitPerChunk", true);
+        ReflectionTestUtils.setField(chunkedPersistence, "resume", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private <T> T extractor(T extractor) {
+        ReflectionTestUtils.setField(extractor, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(extractor, "chunkedPersistence", chunkedPersistence);
+        return extractor;
+    }
+
+    private static String write(Path dir, String name, String content) throws Exception {
+        Path file = dir.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file.toString();
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    void testRolesImportedTwiceAreStoredOnce(@TempDir Path dir) throws Exception {
+        // The repeated rows fall in different chunks, the unnamed role is repeated too
+        String file = write(dir, "roles.csv",
+                "FILM;ID ACTEUR;PERSONNAGE\ntt1;nm1;Don\ntt1;nm2;\ntt1;nm1;Alma\ntt1;nm2;\ntt1;nm1;Don\n");
+        RoleExtractor roleExtractor = extractor(new RoleExtractor());
+
+        roleExtractor.extractRolesFromCSVBulk(file);
+        roleExtractor.extractRolesFromCSVBulk(file);
+
+        assertEquals(3, count("role"));
+        assertEquals(1, count("role WHERE role_name = ''"));
+        assertEquals(2, count("film_acteur"));
+    }
+
+    @Test
+    void testCastingPrincipalsImportedTwiceAreStoredOnce(@TempDir Path dir) throws Exception {
+        String file = write(dir, "castingPrincipal.csv", "FILM;ID ACTEUR\ntt1;nm1\ntt1;nm2\ntt1;nm1\n");
+        CastingPrincipalExtractor castingPrincipalExtractor = extractor(new CastingPrincipalExtractor());
+        ReflectionTestUtils.setField(castingPrincipalExtractor, "localInfileLoader", localInfileLoader);
+
+        castingPrincipalExtractor.extractCastingPrincipalsFromCSV(file);
+        castingPrincipalExtractor.extractCastingPrincipalsFromCSV(file);
+
+        assertEquals(2, count("casting_principal"));
+    }
+
+    @Test
+    void testFilmRealisateursImportedTwiceAreStoredOnce(@TempDir Path dir) throws Exception {
+        String file = write(dir, "film_realisateurs.csv", "FILM;ID REALISATEUR\ntt1;nm1\ntt2;nm1\ntt1;nm1\n");
+        FilmRealisateurExtractor filmRealisateurExtractor = extractor(new FilmRealisateurExtractor());
+        ReflectionTestUtils.setField(filmRealisateurExtractor, "localInfileLoader", localInfileLoader);
+
+        filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV(file);
+        filmRealisateurExtractor.extractAndSaveFilmRealisateurFromCSV(file);
+
+        assertEquals(2, count("film_realisateur"));
+    }
+}
@@ -0,0 +1,105 @@
+package utilities.csvextractors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedCsvReaderTest {
+
+    private static final Path ACTEURS_CSV = Path.of("src/main/resources/CSV/acteurs.csv");
+    private static final Path ROLES_CSV = Path.of("src/main/resources/CSV/roles.csv");
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    @Test
+    void testDetectCharset() throws Exception {
+        assertEquals(WINDOWS_1252, MappedCsvReader.detectCharset(ACTEURS_CSV));
+        assertEquals(StandardCharsets.UTF_8, MappedCsvReader.detectCharset(ROLES_CSV));
+    }
+
+    @Test
+    void testQuotedFieldsAndReusedRow(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("quoted.csv");
+        Files.writeString(file, "a;\"b;c\";\"say \"\"hi\"\"\"\r\n;\"multi\nline\";é\n", StandardCharsets.UTF_8);
+
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            MappedCsvReader.CsvRow first = reader.next();
+            assertEquals(3, first.size());
+            assertEquals("a", first.get(0));
+            assertEquals("b;c", first.get(1));
+            assertEquals("say \"hi\"", first.field(2).toString());
+
+            MappedCsvReader.CsvRow second = reader.next();
+            assertSame(first, second);
+            assertTrue(second.isEmpty(0));
+            assertEquals("multi\nline", second.get(1));
+            assertEquals("é", second.get(2));
+
+            assertNull(reader.next());
+            assertEquals(Files.size(file), reader.position());
+        }
+    }
+
+    @Test
+    void testSeekResumesAfterPosition(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("resume.csv");
+        Files.writeString(file, "header\nrow1\nrow2\nrow3\n", StandardCharsets.UTF_8);
+
+        long offset;
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            reader.skipHeader();
+            assertEquals("row1", reader.next().get(0));
+            offset = reader.position();
+        }
+
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            reader.seek(offset);
+            // The header was consumed before the checkpoint, so it must not be skipped again
+            reader.skipHeader();
+            assertEquals("row2", reader.next().get(0));
+            assertEquals("row3", reader.next().get(0));
+            assertTrue(reader.isAtEnd());
+        }
+    }
+
+    @Test
+    void testSameRowsAsOpenCsvOnActeurs() throws Exception {
+        compareWithOpenCsv(ACTEURS_CSV, WINDOWS_1252);
+    }
+
+    @Test
+    void testSameRowsAsOpenCsvOnRoles() throws Exception {
+        compareWithOpenCsv(ROLES_CSV, StandardCharsets.UTF_8);
+    }
+
+    // Reads the file with both readers and checks that every row and field matches
+    private void compareWithOpenCsv(Path file, Charset charset) throws Exception {
+        // The backslash escape is disabled because the files never use it and the mapped reader does not either
+        try (CSVReader expected = new CSVReaderBuilder(new InputStreamReader(Files.newInputStream(file), charset))
+                .withCSVParser(new CSVParserBuilder().withSeparator(';').withEscapeChar('\0').build())
+                .build();
+             MappedCsvReader actual = MappedCsvReader.open(file.toString())) {
+            String[] expectedRow;
+            int rowNumber = 0;
+            while ((expectedRow = expected.readNext()) != null) {
+                rowNumber++;
+                MappedCsvReader.CsvRow actualRow = actual.next();
+                assertNotNull(actualRow, "Missing row " + rowNumber);
+                assertEquals(expectedRow.length, actualRow.size(), "Field count of row " + rowNumber);
+                for (int i = 0; i < expectedRow.length; i++) {
+                    assertEquals(expectedRow[i], actualRow.get(i), "Row " + rowNumber + ", field " + i);
+                }
+            }
+            assertNull(actual.next());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package utilities.csvextractors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import entities.business.genre.Genre;
+import entities.business.pays.Pays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import service.GenreService;
+import service.PaysService;
+
+import java.util.List;
+
+public class ReferenceDataCacheTest {
+
+    @Mock
+    private PaysService paysService;
+
+    @Mock
+    private GenreService genreService;
+
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(paysService.findAll()).thenReturn(List.of(new Pays(1L, "France")));
+        when(genreService.findAllWithoutFilms()).thenReturn(List.of(Genre.builder().id(1L).name("Drama").build()));
+        cache = ReferenceDataCache.warmUp(paysService, genreService);
+    }
+
+    @Test
+    void testWarmedEntriesAreNotLookedUp() {
+        assertEquals(1L, cache.findOrCreatePays("France").getId());
+        assertEquals(1L, cache.findOrCreateGenre("Drama").getId());
+
+        verify(paysService, never()).findOrCreatePays(anyString());
+        verify(genreService, never()).findOrCreateGenre(anyString());
+    }
+
+    @Test
+    void testEntriesOfACommittedChunkAreKept() {
+        when(paysService.findOrCreatePays("Italy")).thenReturn(new Pays(2L, "Italy"));
+        when(genreService.findOrCreateGenre("Comedy")).thenReturn(Genre.builder().id(2L).name("Comedy").build());
+        cache.findOrCreatePays("Italy");
+        cache.findOrCreateGenre("Comedy");
+
+        cache.chunkCommitted();
+        // A later rollback only concerns the entries of its own chunk
+        cache.chunkRolledBack();
+
+        assertEquals(2L, cache.findOrCreatePays("Italy").getId());
+        assertEquals(2L, cache.findOrCreateGenre("Comedy").getId());
+        verify(paysService, times(1)).findOrCreatePays("Italy");
+        verify(genreService, times(1)).findOrCreateGenre("Comedy");
+    }
+
+    @Test
+    void testEntriesOfARolledBackChunkAreEvicted() {
+        // The first ID was created in the rolled back chunk, the second one by the next chunk
+        when(paysService.findOrCreatePays("Italy")).thenReturn(new Pays(2L, "Italy"), new Pays(3L, "Italy"));
+        when(genreService.findOrCreateGenre("Comedy")).thenReturn(
+                Genre.builder().id(2L).name("Comedy").build(), Genre.builder().id(3L).name("Comedy").build());
+        cache.findOrCreatePays("Italy");
+        cache.findOrCreateGenre("Comedy");
+
+        cache.chunkRolledBack();
+
+        assertEquals(3L, cache.findOrCreatePays("Italy").getId());
+        assertEquals(3L, cache.findOrCreateGenre("Comedy").getId());
+        // Entries loaded when the cache was warmed were committed before the import and stay cached
+        assertEquals(1L, cache.findOrCreatePays("France").getId());
+        assertEquals(1L, cache.findOrCreateGenre("Drama").getId());
+        verify(paysService, never()).findOrCreatePays("France");
+        verify(genreService, never()).findOrCreateGenre("Drama");
+    }
+}
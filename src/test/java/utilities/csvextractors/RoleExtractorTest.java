@@ -0,0 +1,120 @@
+package utilities.csvextractors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import utilities.database.ChunkedPersistence;
+import utilities.database.ImportCheckpointStore;
+import utilities.database.ImportProgress;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RoleExtractorTest {
+
+    private static final String HEADER = "FILM;ID ACTEUR;PERSONNAGE\n";
+
+    @InjectMocks
+    private RoleExtractor roleExtractor;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Rows sent in each batch, copied when sent since the extractor reuses its lists
+    private final List<List<String>> roleBatches = new ArrayList<>();
+    private final List<List<String>> filmActeurBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ChunkedPersistence chunkedPersistence = new ChunkedPersistence();
+        ReflectionTestUtils.setField(chunkedPersistence, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(chunkedPersistence, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(chunkedPersistence, "checkpointStore", mock(ImportCheckpointStore.class));
+        ReflectionTestUtils.setField(chunkedPersistence, "importProgress", new ImportProgress());
+        ReflectionTestUtils.setField(chunkedPersistence, "chunkSize", 3);
+        ReflectionTestUtils.setField(chunkedPersistence, "commitPerChunk", true);
+        ReflectionTestUtils.setField(chunkedPersistence, "resume", false);
+        ReflectionTestUtils.setField(roleExtractor, "chunkedPersistence", chunkedPersistence);
+
+        TransactionStatus transaction = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(transaction);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT IGNORE INTO role "), anyList())).thenAnswer(invocation -> {
+            roleBatches.add(rows(invocation.getArgument(1)));
+            return new int[0];
+        });
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT IGNORE INTO film_acteur "), anyList())).thenAnswer(invocation -> {
+            filmActeurBatches.add(rows(invocation.getArgument(1)));
+            return new int[0];
+        });
+    }
+
+    private static List<String> rows(List<Object[]> batch) {
+        return batch.stream().map(Arrays::toString).toList();
+    }
+
+    private static String write(Path dir, String rows) throws Exception {
+        Path file = dir.resolve("roles.csv");
+        Files.writeString(file, HEADER + rows, StandardCharsets.UTF_8);
+        return file.toString();
+    }
+
+    @Test
+    void testBulkImportSendsOneBatchPerChunk(@TempDir Path dir) throws Exception {
+        String file = write(dir, "tt1;nm1;Don\ntt1;nm2;\ntt1;nm1;Alma\ntt2;nm1;Joe\n;nm3;Ghost\ntt2;;Nobody\n");
+
+        roleExtractor.extractRolesFromCSVBulk(file);
+
+        // A missing character name is sent as '', rows without a film or an actor are skipped
+        assertEquals(List.of(
+                List.of("[Don, tt1, nm1]", "[, tt1, nm2]", "[Alma, tt1, nm1]"),
+                List.of("[Joe, tt2, nm1]")), roleBatches);
+        // The pair of non-consecutive rows for the same film and actor is only sent once
+        assertEquals(List.of(
+                List.of("[nm1, tt1]", "[nm2, tt1]"),
+                List.of("[nm1, tt2]")), filmActeurBatches);
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testRolledBackChunkIsNotSentAgain(@TempDir Path dir) throws Exception {
+        String file = write(dir, "tt1;nm1;Don\ntt1;nm2;Alma\ntt1;nm3;Joe\ntt2;nm4;Ann\n");
+        // The film_acteur batch of the first chunk fails after its role batch was sent
+        doThrow(new IllegalStateException("Deadlock"))
+                .doAnswer(invocation -> {
+                    filmActeurBatches.add(rows(invocation.getArgument(1)));
+                    return new int[0];
+                })
+                .when(jdbcTemplate).batchUpdate(startsWith("INSERT IGNORE INTO film_acteur "), anyList());
+
+        roleExtractor.extractRolesFromCSVBulk(file);
+
+        // The next chunk only sends its own rows
+        assertEquals(List.of(
+                List.of("[Don, tt1, nm1]", "[Alma, tt1, nm2]", "[Joe, tt1, nm3]"),
+                List.of("[Ann, tt2, nm4]")), roleBatches);
+        assertEquals(List.of(List.of("[nm4, tt2]")), filmActeurBatches);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+}
@@ -0,0 +1,222 @@
+package utilities.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import jakarta.persistence.EntityManager;
+import utilities.csvextractors.MappedCsvReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public class ChunkedPersistenceTest {
+
+    @InjectMocks
+    private ChunkedPersistence chunkedPersistence;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ImportCheckpointStore checkpointStore;
+
+    @Mock
+    private ImportProgress importProgress;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(chunkedPersistence, "chunkSize", 2);
+        ReflectionTestUtils.setField(chunkedPersistence, "commitPerChunk", true);
+        ReflectionTestUtils.setField(chunkedPersistence, "resume", true);
+        when(checkpointStore.find(anyString())).thenReturn(Optional.empty());
+    }
+
+    private static TransactionStatus transaction(boolean rollbackOnly) {
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(status.isRollbackOnly()).thenReturn(rollbackOnly);
+        return status;
+    }
+
+    @Test
+    void testRolledBackChunkIsReadAgainOnResume(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("roles.csv");
+        Files.writeString(file, "header\nrow1\nrow2\nrow3\nrow4\nrow5\nrow6\n", StandardCharsets.UTF_8);
+        // Chunks of two rows: the second chunk is rolled back, the first and third are committed
+        TransactionStatus first = transaction(false);
+        TransactionStatus second = transaction(true);
+        TransactionStatus third = transaction(false);
+        TransactionStatus last = transaction(false);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(first, second, third, last);
+
+        long offsetAfterFirstChunk;
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            try (ChunkedPersistence.ChunkedSession session = chunkedPersistence.open("roles.csv", reader)) {
+                reader.skipHeader();
+                reader.next();
+                reader.next();
+                offsetAfterFirstChunk = reader.position();
+                session.completeRow();
+                session.completeRow();
+                while (reader.next() != null) {
+                    session.completeRow();
+                }
+            }
+        }
+
+        // Only the first chunk moved the checkpoint, and the file is not marked as imported
+        verify(checkpointStore).save(eq("roles.csv"), anyString(), eq(offsetAfterFirstChunk), eq(2L), eq(false));
+        verify(checkpointStore, never()).save(anyString(), anyString(), anyLong(), anyLong(), eq(true));
+
+        // The next import of the same file resumes with the first rolled back row
+        when(checkpointStore.find("roles.csv")).thenReturn(Optional.of(
+                new ImportCheckpointStore.Checkpoint(ImportCheckpointStore.hash(file), offsetAfterFirstChunk, 2L, false)));
+        TransactionStatus resumed = transaction(false);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(resumed);
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            try (ChunkedPersistence.ChunkedSession session = chunkedPersistence.open("roles.csv", reader)) {
+                reader.skipHeader();
+                assertEquals(2L, session.getRowsCommitted());
+                assertEquals("row3", reader.next().get(0));
+                session.completeRow();
+            }
+        }
+    }
+
+    @Test
+    void testChunkHooksFollowTheOutcomeOfEachChunk() {
+        // First chunk committed, second rolled back
+        TransactionStatus first = transaction(false);
+        TransactionStatus second = transaction(true);
+        TransactionStatus last = transaction(false);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(first, second, last);
+        Runnable committed = mock(Runnable.class);
+        Runnable rolledBack = mock(Runnable.class);
+        Runnable otherRolledBack = mock(Runnable.class);
+
+        ChunkedPersistence.ChunkedSession session = chunkedPersistence.open("films.csv");
+        session.onChunkCommit(committed);
+        session.onChunkRollback(rolledBack);
+        session.onChunkRollback(otherRolledBack);
+        session.completeRow();
+        session.completeRow();
+        verify(committed).run();
+        verify(rolledBack, never()).run();
+
+        session.completeRow();
+        session.completeRow();
+        verify(committed).run();
+        // Every registered action runs, not only the last one
+        verify(rolledBack).run();
+        verify(otherRolledBack).run();
+    }
+
+    @Test
+    void testEachChunkIsFlushedClearedAndCommittedInItsOwnTransaction() {
+        TransactionStatus first = transaction(false);
+        TransactionStatus second = transaction(false);
+        TransactionStatus last = transaction(false);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(first, second, last);
+
+        ChunkedPersistence.ChunkedSession session = chunkedPersistence.open("films.csv");
+        session.completeRow();
+        verify(transactionManager, never()).commit(any());
+        session.completeRow();
+
+        // The persistence context is emptied before the commit, then the next chunk gets a new transaction
+        InOrder inOrder = inOrder(entityManager, transactionManager);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(transactionManager).commit(first);
+        inOrder.verify(transactionManager).getTransaction(any(TransactionDefinition.class));
+
+        session.completeRow();
+        session.completeRow();
+        session.completeRow();
+        session.close();
+
+        verify(transactionManager).commit(second);
+        verify(transactionManager).commit(last);
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        assertEquals(5L, session.getRowsCommitted());
+
+        // Each chunk is independent of any transaction the caller may have open
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(3)).getTransaction(definitions.capture());
+        definitions.getAllValues().forEach(definition ->
+                assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getPropagationBehavior()));
+    }
+
+    @Test
+    void testChunksShareOneTransactionWithoutCommitPerChunk() {
+        ReflectionTestUtils.setField(chunkedPersistence, "commitPerChunk", false);
+        TransactionStatus transaction = transaction(false);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(transaction);
+
+        ChunkedPersistence.ChunkedSession session = chunkedPersistence.open("films.csv");
+        for (int i = 0; i < 5; i++) {
+            session.completeRow();
+        }
+        // Two chunks were flushed and cleared, nothing is committed yet
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(transactionManager, never()).commit(any());
+
+        session.close();
+
+        verify(transactionManager, times(1)).getTransaction(any(TransactionDefinition.class));
+        verify(transactionManager).commit(transaction);
+        verify(entityManager, times(3)).flush();
+        assertEquals(5L, session.getRowsCommitted());
+    }
+
+    @Test
+    void testFailedCommitRollsBackOnlyItsChunk() {
+        TransactionStatus first = transaction(false);
+        TransactionStatus second = transaction(false);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(first, second);
+        doThrow(new TransactionSystemException("Deadlock found when trying to get lock")).when(transactionManager).commit(first);
+        Runnable committed = mock(Runnable.class);
+        Runnable rolledBack = mock(Runnable.class);
+
+        ChunkedPersistence.ChunkedSession session = chunkedPersistence.open("films.csv");
+        session.onChunkCommit(committed);
+        session.onChunkRollback(rolledBack);
+        session.completeRow();
+        session.completeRow();
+
+        verify(transactionManager).rollback(first);
+        verify(rolledBack).run();
+        verify(committed, never()).run();
+        assertEquals(0L, session.getRowsCommitted());
+
+        // The next chunk runs in a new transaction and is committed
+        session.completeRow();
+        session.close();
+
+        verify(transactionManager).commit(second);
+        verify(transactionManager, never()).rollback(second);
+        verify(committed).run();
+        assertEquals(1L, session.getRowsCommitted());
+    }
+}
@@ -0,0 +1,90 @@
+package utilities.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import utilities.csvextractors.FilmExtractor;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class DataImportJobTest {
+
+    @InjectMocks
+    private DataImportJob dataImportJob;
+
+    @InjectMocks
+    private DataImportHealthIndicator healthIndicator;
+
+    @Mock
+    private DatabaseInitializer databaseInitializer;
+
+    @Spy
+    private ImportProgress importProgress = new ImportProgress();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testAllStagesCompleted() {
+        when(databaseInitializer.createDatabase()).thenReturn(List.of(
+                new ImportPipeline.StageResult("films", ImportPipeline.StageStatus.COMPLETED, 10)));
+
+        dataImportJob.start();
+
+        verify(eventPublisher, timeout(5000)).publishEvent(new DataImportCompletedEvent(true));
+        assertEquals(ImportProgress.State.COMPLETED, importProgress.getState());
+    }
+
+    @Test
+    void testFailedStageFailsTheJob() {
+        when(databaseInitializer.createDatabase()).thenReturn(List.of(
+                new ImportPipeline.StageResult("films", ImportPipeline.StageStatus.COMPLETED, 10),
+                new ImportPipeline.StageResult("roles", ImportPipeline.StageStatus.FAILED, 5),
+                new ImportPipeline.StageResult("film_realisateur", ImportPipeline.StageStatus.SKIPPED, 0)));
+
+        dataImportJob.start();
+
+        verify(eventPublisher, timeout(5000)).publishEvent(new DataImportCompletedEvent(false));
+        assertEquals(ImportProgress.State.FAILED, importProgress.getState());
+        assertEquals("Import stages did not complete: roles FAILED, film_realisateur SKIPPED",
+                importProgress.snapshot().get("error"));
+    }
+
+    @Test
+    void testMissingCsvFileFailsTheJobAndReadiness(@TempDir Path dir) {
+        String missingFile = dir.resolve("films.csv").toString();
+        FilmExtractor filmExtractor = new FilmExtractor();
+        when(databaseInitializer.createDatabase()).thenAnswer(invocation -> new ImportPipeline(1)
+                .listener(importProgress)
+                .stage("films", () -> filmExtractor.extractAndSaveFilmsFromCSV(missingFile))
+                .stage("roles", () -> { }, "films")
+                .run());
+
+        dataImportJob.start();
+
+        verify(eventPublisher, timeout(5000)).publishEvent(new DataImportCompletedEvent(false));
+        assertEquals(ImportProgress.State.FAILED, importProgress.getState());
+        assertEquals("Import stages did not complete: films FAILED, roles SKIPPED", importProgress.snapshot().get("error"));
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+}
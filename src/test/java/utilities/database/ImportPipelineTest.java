@@ -0,0 +1,111 @@
+package utilities.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ImportPipelineTest {
+
+    private static Runnable record(List<String> events, String name) {
+        return () -> {
+            events.add("start:" + name);
+            events.add("end:" + name);
+        };
+    }
+
+    @Test
+    void testStagesRunAfterTheirDependencies() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        List<ImportPipeline.StageResult> results = new ImportPipeline(4)
+                .stage("films", record(events, "films"))
+                .stage("acteurs", record(events, "acteurs"))
+                .stage("realisateurs", record(events, "realisateurs"), "acteurs")
+                .stage("roles", record(events, "roles"), "films", "acteurs")
+                .stage("film_realisateur", record(events, "film_realisateur"), "films", "realisateurs")
+                .run();
+
+        assertEquals(List.of("films", "acteurs", "realisateurs", "roles", "film_realisateur"),
+                results.stream().map(ImportPipeline.StageResult::name).toList());
+        results.forEach(result -> assertEquals(ImportPipeline.StageStatus.COMPLETED, result.status(), result.name()));
+        assertTrue(events.indexOf("end:acteurs") < events.indexOf("start:realisateurs"));
+        assertTrue(events.indexOf("end:films") < events.indexOf("start:roles"));
+        assertTrue(events.indexOf("end:acteurs") < events.indexOf("start:roles"));
+        assertTrue(events.indexOf("end:films") < events.indexOf("start:film_realisateur"));
+        assertTrue(events.indexOf("end:realisateurs") < events.indexOf("start:film_realisateur"));
+    }
+
+    @Test
+    void testIndependentStagesRunConcurrently() {
+        // Each stage waits for the other one to start, which only succeeds if both run at the same time
+        CountDownLatch started = new CountDownLatch(2);
+        Runnable meet = () -> {
+            started.countDown();
+            try {
+                if (!started.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("The other stage did not start");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        };
+
+        List<ImportPipeline.StageResult> results = new ImportPipeline(2)
+                .stage("films", meet)
+                .stage("acteurs", meet)
+                .run();
+
+        results.forEach(result -> assertEquals(ImportPipeline.StageStatus.COMPLETED, result.status(), result.name()));
+    }
+
+    @Test
+    void testFailedStageSkipsItsDependents() {
+        AtomicBoolean rolesRan = new AtomicBoolean();
+        Map<String, ImportPipeline.StageStatus> notified = new ConcurrentHashMap<>();
+
+        List<ImportPipeline.StageResult> results = new ImportPipeline(2)
+                .listener(new ImportPipeline.StageListener() {
+                    @Override
+                    public void stageStarted(String name) {
+                    }
+
+                    @Override
+                    public void stageFinished(ImportPipeline.StageResult result) {
+                        notified.put(result.name(), result.status());
+                    }
+                })
+                .stage("films", () -> {
+                    throw new IllegalStateException("films.csv not found");
+                })
+                .stage("acteurs", () -> { })
+                .stage("roles", () -> rolesRan.set(true), "films", "acteurs")
+                .stage("film_realisateur", () -> { }, "roles")
+                .run();
+
+        assertEquals(List.of(ImportPipeline.StageStatus.FAILED, ImportPipeline.StageStatus.COMPLETED,
+                        ImportPipeline.StageStatus.SKIPPED, ImportPipeline.StageStatus.SKIPPED),
+                results.stream().map(ImportPipeline.StageResult::status).toList());
+        assertFalse(rolesRan.get());
+        assertEquals(Map.of("films", ImportPipeline.StageStatus.FAILED, "acteurs", ImportPipeline.StageStatus.COMPLETED,
+                "roles", ImportPipeline.StageStatus.SKIPPED, "film_realisateur", ImportPipeline.StageStatus.SKIPPED), notified);
+    }
+
+    @Test
+    void testUnknownOrDuplicateStagesAreRejected() {
+        ImportPipeline pipeline = new ImportPipeline(1).stage("films", () -> { });
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.stage("roles", () -> { }, "acteurs"));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.stage("films", () -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new ImportPipeline(0));
+    }
+}
@@ -0,0 +1,109 @@
+package utilities.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class LocalInfileLoaderTest {
+
+    @InjectMocks
+    private LocalInfileLoader localInfileLoader;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private org.mariadb.jdbc.Statement mariadbStatement;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(statement.unwrap(org.mariadb.jdbc.Statement.class)).thenReturn(mariadbStatement);
+    }
+
+    private static String write(Path dir) throws Exception {
+        Path file = dir.resolve("film_realisateurs.csv");
+        Files.writeString(file, "FILM;ID REALISATEUR\ntt0014137;nm0000001\ntt0014137;nm0000001\n", StandardCharsets.UTF_8);
+        return file.toString();
+    }
+
+    @Test
+    void testLoadPairs_StagesTheFileThenMergesIt(@TempDir Path dir) throws Exception {
+        String file = write(dir);
+        when(statement.executeLargeUpdate(startsWith("LOAD DATA"))).thenReturn(2L);
+        when(statement.executeLargeUpdate(startsWith("INSERT"))).thenReturn(1L);
+
+        assertEquals(1L, localInfileLoader.loadPairs(file, "film_realisateur", "film_imdb", "realisateur_id_imdb"));
+
+        InOrder inOrder = inOrder(connection, statement, mariadbStatement);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(statement).executeUpdate(
+                "CREATE TEMPORARY TABLE IF NOT EXISTS staging_film_realisateur (first_value VARCHAR(255), second_value VARCHAR(255))");
+        inOrder.verify(statement).executeUpdate("TRUNCATE TABLE staging_film_realisateur");
+        inOrder.verify(mariadbStatement).setLocalInfileInputStream(any(InputStream.class));
+        inOrder.verify(statement).executeLargeUpdate(startsWith("LOAD DATA LOCAL INFILE 'stream' INTO TABLE staging_film_realisateur "));
+        // The merge keeps the column order of the target and drops the pairs with a missing side
+        inOrder.verify(statement).executeLargeUpdate("INSERT IGNORE INTO film_realisateur (film_imdb, realisateur_id_imdb) " +
+                "SELECT s.first_value, s.second_value FROM staging_film_realisateur s " +
+                "WHERE s.first_value IS NOT NULL AND s.second_value IS NOT NULL");
+        inOrder.verify(statement).executeUpdate("DROP TEMPORARY TABLE staging_film_realisateur");
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+
+        // Semicolon-separated, without the header row
+        verify(statement).executeLargeUpdate(argThat((String sql) -> sql.startsWith("LOAD DATA")
+                && sql.contains("FIELDS TERMINATED BY ';'") && sql.contains("IGNORE 1 LINES")));
+        verify(connection, never()).rollback();
+    }
+
+    @Test
+    void testLoadPairs_RollsBackAndFallsBackWhenTheLoadFails(@TempDir Path dir) throws Exception {
+        String file = write(dir);
+        when(statement.executeLargeUpdate(startsWith("LOAD DATA")))
+                .thenThrow(new SQLException("The used command is not allowed because the MariaDB server has disabled the local infile capability"));
+
+        assertEquals(-1L, localInfileLoader.loadPairs(file, "film_realisateur", "film_imdb", "realisateur_id_imdb"));
+
+        verify(statement, never()).executeLargeUpdate(startsWith("INSERT"));
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void testLoadPairs_FallsBackWhenTheDriverIsNotMariaDb(@TempDir Path dir) throws Exception {
+        String file = write(dir);
+        when(statement.unwrap(org.mariadb.jdbc.Statement.class)).thenThrow(new SQLException("Not a MariaDB statement"));
+
+        assertEquals(-1L, localInfileLoader.loadPairs(file, "film_realisateur", "film_imdb", "realisateur_id_imdb"));
+
+        verify(statement, never()).executeLargeUpdate(anyString());
+        verify(connection).rollback();
+    }
+}
@@ -0,0 +1,127 @@
+package utilities.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import utilities.csvextractors.MappedCsvReader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RowFingerprintStoreTest {
+
+    @InjectMocks
+    private RowFingerprintStore fingerprintStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(fingerprintStore, "incremental", true);
+    }
+
+    // Stubs the fingerprints stored by a previous import of the source
+    private void stored(String source, String rowKey, long contentHash) {
+        doAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenReturn(rowKey);
+            when(rs.getLong(2)).thenReturn(contentHash);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(source));
+    }
+
+    private static List<Long> hashes(Path dir, String content) throws Exception {
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        List<Long> hashes = new ArrayList<>();
+        try (MappedCsvReader reader = MappedCsvReader.open(file.toString())) {
+            MappedCsvReader.CsvRow row;
+            while ((row = reader.next()) != null) {
+                hashes.add(row.contentHash());
+            }
+        }
+        return hashes;
+    }
+
+    @Test
+    void testContentHashDependsOnTheFieldsOnly(@TempDir Path dir) throws Exception {
+        List<Long> hashes = hashes(dir, "nm1;John Doe;1950\nnm1;\"John Doe\";1950\r\nnm1;John Doe;1951\nnm1;John Do;e1950\n");
+
+        // Quoting and line endings do not change the hash, a field or a field boundary does
+        assertEquals(hashes.get(0), hashes.get(1));
+        assertNotEquals(hashes.get(0), hashes.get(2));
+        assertNotEquals(hashes.get(0), hashes.get(3));
+    }
+
+    @Test
+    void testLoadIsDisabledOutsideIncrementalImports() {
+        ReflectionTestUtils.setField(fingerprintStore, "incremental", false);
+
+        assertNull(fingerprintStore.load("acteurs"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testOnlyRowsWithTheSameHashAreUnchanged() {
+        stored("acteurs", "nm1", 42L);
+
+        RowFingerprintStore.Fingerprints fingerprints = fingerprintStore.load("acteurs");
+
+        assertTrue(fingerprints.isUnchanged("nm1", 42L));
+        assertFalse(fingerprints.isUnchanged("nm1", 43L));
+        assertFalse(fingerprints.isUnchanged("nm2", 42L));
+        assertEquals(1, fingerprints.getUnchanged());
+    }
+
+    @Test
+    void testRecordedHashesAreWrittenOnFlush() {
+        RowFingerprintStore.Fingerprints fingerprints = fingerprintStore.load("acteurs");
+        fingerprints.record("nm1", 42L);
+        fingerprints.record("nm2", 7L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        fingerprints.flush();
+        // Nothing is left to write for the next chunk
+        fingerprints.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO import_fingerprint "), batch.capture());
+        assertEquals(List.of("[acteurs, nm1, 42]", "[acteurs, nm2, 7]"), batch.getValue().stream().map(Arrays::toString).toList());
+        assertTrue(fingerprints.isUnchanged("nm1", 42L));
+    }
+
+    @Test
+    void testDiscardedHashesAreForgotten() {
+        stored("acteurs", "nm1", 42L);
+        RowFingerprintStore.Fingerprints fingerprints = fingerprintStore.load("acteurs");
+        fingerprints.record("nm2", 7L);
+
+        fingerprints.discardPending();
+        fingerprints.flush();
+
+        // The rolled back row is imported again, the rows of earlier imports are still skipped
+        assertFalse(fingerprints.isUnchanged("nm2", 7L));
+        assertTrue(fingerprints.isUnchanged("nm1", 42L));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
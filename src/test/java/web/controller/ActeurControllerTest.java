@@ -4,6 +4,8 @@ import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import service.ActeurService;
 import web.model.dto.ActeurDTO;
+import web.model.dto.CoStar;
+import web.model.dto.FilmographyEntry;
 import web.model.dto.PersonneDTO;
 import web.model.generic.ApiResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -133,5 +135,41 @@ public class ActeurControllerTest {
         verify(acteurService, times(1)).findActeursWithFiltersAndSorting(anyString(), anyString(), anyString());
     }
 
+    @Test
+    public void testGetFilmography_Success() {
+        List<FilmographyEntry> films = List.of(
+                new FilmographyEntry(2L, "tt0032138", "The Wizard of Oz", "1939", "8,1", List.of("Hunk", "Scarecrow")));
+        when(acteurService.findFilmography("nm1234567")).thenReturn(films);
+
+        ResponseEntity<ApiResponse<List<FilmographyEntry>>> response = acteurController.getFilmography("nm1234567");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(films, response.getBody().getData());
+        verify(acteurService, times(1)).findFilmography("nm1234567");
+    }
+
+    @Test
+    public void testGetFilmography_NotFound() {
+        when(acteurService.findFilmography("nm0000000")).thenThrow(new EntityNotFoundException("Acteur not found"));
+
+        assertThrows(EntityNotFoundException.class, () -> acteurController.getFilmography("nm0000000"));
+    }
 
+    @Test
+    public void testGetCoStars_Success() {
+        List<CoStar> coStars = List.of(new CoStar("nm0000003", "Ray Bolger", 2, List.of("tt0000001", "tt0000002")));
+        when(acteurService.findCoStars("nm1234567", 20)).thenReturn(coStars);
+
+        ResponseEntity<ApiResponse<List<CoStar>>> response = acteurController.getCoStars("nm1234567", 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(coStars, response.getBody().getData());
+    }
+
+    @Test
+    public void testGetCoStars_InvalidLimit() {
+        when(acteurService.findCoStars("nm1234567", 0)).thenThrow(new InvalidDataException("Invalid limit"));
+
+        assertThrows(InvalidDataException.class, () -> acteurController.getCoStars("nm1234567", 0));
+    }
 }
@@ -3,8 +3,12 @@ package web.controller;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import service.FilmService;
+import web.model.dto.CastMember;
 import web.model.dto.FilmDTO;
+import web.model.dto.FilmSearchCriteria;
+import web.model.dto.FilmSummary;
 import web.model.generic.ApiResponse;
+import web.model.generic.KeysetPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -39,16 +43,70 @@ class FilmControllerTest {
     void testSearchFilms_Success() {
         // Arrange
         List<FilmDTO> expectedFilms = Arrays.asList(new FilmDTO(), new FilmDTO());
-        when(filmService.findFilmsWithFiltersAndSorting(any(), any(), any(), any(), any(), any())).thenReturn(expectedFilms);
+        FilmSearchCriteria criteria = new FilmSearchCriteria();
+        when(filmService.findFilmsWithFiltersAndSorting(criteria, null, 50)).thenReturn(new KeysetPage<>(expectedFilms, "next"));
 
         // Act
-        ResponseEntity<ApiResponse<List<FilmDTO>>> response = filmController.searchFilms(null, null, null, null, null, null);
+        ResponseEntity<ApiResponse<List<FilmDTO>>> response = filmController.searchFilms(criteria, null, 50);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Films retrieved successfully", response.getBody().getMessage());
         assertEquals(expectedFilms.size(), response.getBody().getData().size());
+        assertEquals("next", response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testSearchFilmSummaries_Success() {
+        // Arrange
+        FilmSearchCriteria criteria = new FilmSearchCriteria();
+        List<FilmSummary> expectedFilms = List.of(new FilmSummary(1L, "tt0014137", "Nanook of the North", "1922", "7,5", "USA"));
+        when(filmService.findFilmSummariesWithFiltersAndSorting(criteria, null, 50)).thenReturn(new KeysetPage<>(expectedFilms, null));
+
+        // Act
+        ResponseEntity<ApiResponse<List<FilmSummary>>> response = filmController.searchFilmSummaries(criteria, null, 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedFilms, response.getBody().getData());
+        assertNull(response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testSearchFilms_NotFound() {
+        // Arrange
+        FilmSearchCriteria criteria = new FilmSearchCriteria();
+        when(filmService.findFilmsWithFiltersAndSorting(criteria, null, 50))
+                .thenThrow(new EntityNotFoundException("No films found matching the criteria"));
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> filmController.searchFilms(criteria, null, 50));
+    }
+
+    @Test
+    void testSearchFilmSummaries_NotFound() {
+        // Arrange
+        FilmSearchCriteria criteria = new FilmSearchCriteria();
+        when(filmService.findFilmSummariesWithFiltersAndSorting(criteria, null, 50))
+                .thenThrow(new EntityNotFoundException("No films found matching the criteria"));
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> filmController.searchFilmSummaries(criteria, null, 50));
+    }
+
+    @Test
+    void testSearchFilmsFullText_Success() {
+        // Arrange
+        List<FilmDTO> expectedFilms = List.of(new FilmDTO());
+        when(filmService.searchFullText("north", 20)).thenReturn(expectedFilms);
+
+        // Act
+        ResponseEntity<ApiResponse<List<FilmDTO>>> response = filmController.searchFilmsFullText("north", 20);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedFilms, response.getBody().getData());
     }
 
     @Test
@@ -148,6 +206,29 @@ class FilmControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
 
+    @Test
+    void testGetFilmCast_Success() {
+        // Arrange
+        List<CastMember> cast = List.of(new CastMember("nm0000023", "Judy Garland", null, true, List.of("Dorothy")));
+        when(filmService.findCast("tt0032138")).thenReturn(cast);
+
+        // Act
+        ResponseEntity<ApiResponse<List<CastMember>>> response = filmController.getFilmCast("tt0032138");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(cast, response.getBody().getData());
+    }
+
+    @Test
+    void testGetFilmCast_NotFound() {
+        // Arrange
+        when(filmService.findCast("tt0000000")).thenThrow(new EntityNotFoundException("Film not found"));
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> filmController.getFilmCast("tt0000000"));
+    }
+
     // Additional tests for exception handling can be added here...
 
     // Example for invalid data exception
@@ -2,22 +2,29 @@ package web.controller;
 
 import entities.business.genre.Genre;
 import service.GenreService;
+import service.ReferenceSnapshot;
 import web.model.dto.GenreDTO;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +49,10 @@ class GenreControllerTest {
         objectMapper = new ObjectMapper();
     }
 
+    private static ReferenceSnapshot<Genre> snapshotOf(List<Genre> genres) {
+        return ReferenceSnapshot.of(genres, Genre::getId, genre -> genre.getId() + ":" + genre.getName());
+    }
+
     @Test
     void testGetAllGenres_Success() throws Exception {
         // Arrange
@@ -53,8 +64,9 @@ class GenreControllerTest {
         genre2.setId(2L);
         genre2.setName("Drama");
 
-        List<Genre> genres = Arrays.asList(genre1, genre2);
-        when(genreService.findAll()).thenReturn(genres);
+        List<Genre> genres = Arrays.asList(genre2, genre1);
+        ReferenceSnapshot<Genre> snapshot = snapshotOf(genres);
+        when(genreService.getSnapshot()).thenReturn(snapshot);
 
         // Act & Assert
         mockMvc.perform(get("/api/genres"))
@@ -63,9 +75,62 @@ class GenreControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].nom", is("Comedy")))
                 .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].nom", is("Drama")));
+                .andExpect(jsonPath("$[1].nom", is("Drama")))
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER))
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, must-revalidate"));
+
+        verify(genreService, times(1)).getSnapshot();
+    }
+
+    @Test
+    void testGetAllGenres_NotModified() throws Exception {
+        // Arrange
+        Genre genre = new Genre();
+        genre.setId(1L);
+        genre.setName("Comedy");
+        ReferenceSnapshot<Genre> snapshot = snapshotOf(List.of(genre));
+        when(genreService.getSnapshot()).thenReturn(snapshot);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/genres").header(HttpHeaders.IF_NONE_MATCH, snapshot.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()))
+                .andExpect(content().string(""));
+    }
 
-        verify(genreService, times(1)).findAll();
+    @Test
+    void testGetAllGenres_ETagChangesWithContent() {
+        Genre genre = new Genre();
+        genre.setId(1L);
+        genre.setName("Comedy");
+        Genre renamed = new Genre();
+        renamed.setId(1L);
+        renamed.setName("Comedie");
+
+        assertNotEquals(snapshotOf(List.of(genre)).etag(), snapshotOf(List.of(renamed)).etag());
+        assertEquals(snapshotOf(List.of(genre)).etag(), snapshotOf(List.of(genre)).etag());
+    }
+
+    @Test
+    void testGetAllGenres_NextPage() throws Exception {
+        // Arrange
+        List<Genre> genres = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Genre genre = new Genre();
+            genre.setId(id);
+            genre.setName("Genre " + id);
+            genres.add(genre);
+        }
+        when(genreService.getSnapshot()).thenReturn(snapshotOf(genres));
+        String cursor = KeysetCursor.ofId(2L).encode();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/genres").param("after", cursor).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, KeysetCursor.ofId(3L).encode()));
     }
 
     @Test
@@ -2,13 +2,16 @@ package web.controller;
 
 import entities.business.pays.Pays;
 import service.PaysService;
+import service.ReferenceSnapshot;
 import web.model.dto.PaysDTO;
+import web.model.generic.KeysetPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -54,7 +57,8 @@ class PaysControllerTest {
         pays2.setNom("Germany");
 
         List<Pays> paysList = Arrays.asList(pays1, pays2);
-        when(paysService.findAll()).thenReturn(paysList);
+        ReferenceSnapshot<Pays> snapshot = ReferenceSnapshot.of(paysList, Pays::getId, pays -> pays.getId() + ":" + pays.getName());
+        when(paysService.getSnapshot()).thenReturn(snapshot);
 
         // Act & Assert
         mockMvc.perform(get("/api/pays"))
@@ -63,9 +67,24 @@ class PaysControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].nom", is("France")))
                 .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].nom", is("Germany")));
+                .andExpect(jsonPath("$[1].nom", is("Germany")))
+                .andExpect(header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER))
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()));
 
-        verify(paysService, times(1)).findAll();
+        verify(paysService, times(1)).getSnapshot();
+    }
+
+    @Test
+    void testGetAllPays_NotModified() throws Exception {
+        // Arrange
+        Pays pays = new Pays(1L, "France");
+        ReferenceSnapshot<Pays> snapshot = ReferenceSnapshot.of(List.of(pays), Pays::getId, p -> p.getId() + ":" + p.getName());
+        when(paysService.getSnapshot()).thenReturn(snapshot);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/pays").header(HttpHeaders.IF_NONE_MATCH, "W/" + snapshot.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()));
     }
 
     @Test
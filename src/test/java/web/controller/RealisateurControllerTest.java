@@ -3,6 +3,7 @@ package web.controller;
 import service.RealisateurService;
 import web.model.dto.RealisateurDTO;
 import web.model.generic.ApiResponse;
+import web.model.generic.KeysetPage;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import exceptions.ServiceException;
@@ -46,14 +47,14 @@ public class RealisateurControllerTest {
     @Test
     public void testGetAllRealisateurs() {
         List<RealisateurDTO> realisateurs = Arrays.asList(realisateurDTO);
-        when(realisateurService.findAll()).thenReturn(realisateurs);
+        when(realisateurService.findPage(null, 50)).thenReturn(new KeysetPage<>(realisateurs, null));
 
-        ResponseEntity<ApiResponse<List<RealisateurDTO>>> response = realisateurController.getAllRealisateurs();
+        ResponseEntity<ApiResponse<List<RealisateurDTO>>> response = realisateurController.getAllRealisateurs(null, 50);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().getData().size());
         assertEquals(realisateurDTO.getId(), response.getBody().getData().get(0).getId());
-        verify(realisateurService, times(1)).findAll();
+        verify(realisateurService, times(1)).findPage(null, 50);
     }
 
     @Test
@@ -2,6 +2,8 @@ package web.controller;
 
 import service.RoleService;
 import web.model.dto.RoleDTO;
+import web.model.generic.KeysetCursor;
+import web.model.generic.KeysetPage;
 import exceptions.EntityNotFoundException;
 import exceptions.InvalidDataException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -50,34 +52,46 @@ class RoleControllerTest {
         RoleDTO role2 = new RoleDTO(2L, "Role Two", "fq2516354", "s4565465");
         List<RoleDTO> roles = Arrays.asList(role1, role2);
 
-        when(roleService.findRolesWithFilters("Role", 1L, 1L)).thenReturn(roles);
+        when(roleService.findRolesWithFilters("Role", "tt0014137", "nm0000001", null, 50))
+                .thenReturn(new KeysetPage<>(roles, KeysetCursor.ofId(2L).encode()));
 
         // Act & Assert
         mockMvc.perform(get("/api/roles")
                         .param("roleName", "Role")
-                        .param("filmId", "1")
-                        .param("actorId", "1"))
+                        .param("filmId", "tt0014137")
+                        .param("actorId", "nm0000001"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].roleName", is("Role One")))
                 .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].roleName", is("Role Two")));
+                .andExpect(jsonPath("$[1].roleName", is("Role Two")))
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, KeysetCursor.ofId(2L).encode()));
 
-        verify(roleService, times(1)).findRolesWithFilters("Role", 1L, 1L);
+        verify(roleService, times(1)).findRolesWithFilters("Role", "tt0014137", "nm0000001", null, 50);
+    }
+
+    @Test
+    void testFindRolesWithFilters_InvalidLimit() throws Exception {
+        // Arrange
+        when(roleService.findRolesWithFilters(null, null, null, null, 0)).thenThrow(new InvalidDataException("Invalid limit"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/roles").param("limit", "0"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void testFindRolesWithFilters_NotFound() throws Exception {
         // Arrange
-        when(roleService.findRolesWithFilters("Nonexistent", null, null)).thenThrow(new EntityNotFoundException("No roles found"));
+        when(roleService.findRolesWithFilters("Nonexistent", null, null, null, 50)).thenThrow(new EntityNotFoundException("No roles found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/roles")
                         .param("roleName", "Nonexistent"))
                 .andExpect(status().isNotFound());
 
-        verify(roleService, times(1)).findRolesWithFilters("Nonexistent", null, null);
+        verify(roleService, times(1)).findRolesWithFilters("Nonexistent", null, null, null, 50);
     }
 
     @Test